@@ -0,0 +1,120 @@
+/*
+ * @(#) net/sf/jadretro/RetroAgent.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.File;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.security.ProtectionDomain;
+
+/**
+ * The Java agent transforming the classes as they are loaded.
+ */
+public final class RetroAgent implements ClassFileTransformer {
+
+	private/* final */ClassTransformer transformer;
+
+	private/* final */TransformCache cache;
+
+	private RetroAgent(ClassTransformer transformer, TransformCache cache) {
+		this.transformer = transformer;
+		this.cache = cache;
+	}
+
+	public static void premain(String agentArgs, Instrumentation inst) {
+		inst.addTransformer(create(agentArgs));
+	}
+
+	public static void agentmain(String agentArgs, Instrumentation inst) {
+		premain(agentArgs, inst);
+	}
+
+	static RetroAgent create(String agentArgs) {
+		File cacheDir = new File(System.getProperty("user.home"),
+				".jadretro-cache");
+		if (agentArgs != null) {
+			String[] args = agentArgs.split(",");
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("nocache")) {
+					cacheDir = null;
+				} else if (args[i].startsWith("cache=")) {
+					cacheDir = new File(args[i].substring(6));
+				} else if (args[i].length() > 0) {
+					System.err.println("JadRetro agent: unknown option: "
+							+ args[i]);
+				}
+			}
+		}
+		// The loaded classes could not be renamed, the bridge methods could
+		// be already linked to, the stack maps are not updated (so the
+		// class version is lowered unless the class is left intact), and
+		// the classes are to be run (not decompiled) so their behavior
+		// should be kept.
+		TransformOptions options = new TransformOptions(true, true, true,
+				true);
+		return new RetroAgent(new ClassTransformer(options),
+				cacheDir != null ? new TransformCache(cacheDir, options)
+						: null);
+	}
+
+	public byte[] transform(ClassLoader loader, String className,
+			Class<?> classBeingRedefined, ProtectionDomain protectionDomain,
+			byte[] classfileBuffer) {
+		if (loader == null)
+			return null;
+		try {
+			int len = classfileBuffer.length;
+			if (!transformer.mayChange(classfileBuffer, 0, len))
+				return null;
+			String key = cache != null ? cache.keyOf(classfileBuffer, 0, len)
+					: null;
+			TransformResult result = key != null ? cache.lookup(key) : null;
+			if (result == null) {
+				result = transformer.transform(classfileBuffer, 0, len);
+				if (key != null) {
+					cache.store(key, result);
+				}
+			}
+			return result.classBytes();
+		} catch (RuntimeException e) {
+			return null;
+		} catch (Error e) {
+			return null;
+		}
+	}
+}
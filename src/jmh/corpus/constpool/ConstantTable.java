@@ -0,0 +1,684 @@
+/*
+ * @(#) constpool/ConstantTable.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package constpool;
+
+public class ConstantTable {
+
+	public static final String KEY_0 = "alpha.alpha.0";
+
+	public static final String KEY_1 = "bravo.hotel.1";
+
+	public static final String KEY_2 = "charlie.oscar.2";
+
+	public static final String KEY_3 = "delta.bravo.3";
+
+	public static final String KEY_4 = "echo.india.4";
+
+	public static final String KEY_5 = "foxtrot.papa.5";
+
+	public static final String KEY_6 = "golf.charlie.6";
+
+	public static final String KEY_7 = "hotel.juliet.7";
+
+	public static final String KEY_8 = "india.quebec.8";
+
+	public static final String KEY_9 = "juliet.delta.9";
+
+	public static final String KEY_10 = "kilo.kilo.10";
+
+	public static final String KEY_11 = "lima.romeo.11";
+
+	public static final String KEY_12 = "mike.echo.12";
+
+	public static final String KEY_13 = "november.lima.13";
+
+	public static final String KEY_14 = "oscar.sierra.14";
+
+	public static final String KEY_15 = "papa.foxtrot.15";
+
+	public static final String KEY_16 = "quebec.mike.16";
+
+	public static final String KEY_17 = "romeo.tango.17";
+
+	public static final String KEY_18 = "sierra.golf.18";
+
+	public static final String KEY_19 = "tango.november.19";
+
+	public static final String KEY_20 = "alpha.alpha.20";
+
+	public static final String KEY_21 = "bravo.hotel.21";
+
+	public static final String KEY_22 = "charlie.oscar.22";
+
+	public static final String KEY_23 = "delta.bravo.23";
+
+	public static final String KEY_24 = "echo.india.24";
+
+	public static final String KEY_25 = "foxtrot.papa.25";
+
+	public static final String KEY_26 = "golf.charlie.26";
+
+	public static final String KEY_27 = "hotel.juliet.27";
+
+	public static final String KEY_28 = "india.quebec.28";
+
+	public static final String KEY_29 = "juliet.delta.29";
+
+	public static final String KEY_30 = "kilo.kilo.30";
+
+	public static final String KEY_31 = "lima.romeo.31";
+
+	public static final String KEY_32 = "mike.echo.32";
+
+	public static final String KEY_33 = "november.lima.33";
+
+	public static final String KEY_34 = "oscar.sierra.34";
+
+	public static final String KEY_35 = "papa.foxtrot.35";
+
+	public static final String KEY_36 = "quebec.mike.36";
+
+	public static final String KEY_37 = "romeo.tango.37";
+
+	public static final String KEY_38 = "sierra.golf.38";
+
+	public static final String KEY_39 = "tango.november.39";
+
+	public static final String KEY_40 = "alpha.alpha.40";
+
+	public static final String KEY_41 = "bravo.hotel.41";
+
+	public static final String KEY_42 = "charlie.oscar.42";
+
+	public static final String KEY_43 = "delta.bravo.43";
+
+	public static final String KEY_44 = "echo.india.44";
+
+	public static final String KEY_45 = "foxtrot.papa.45";
+
+	public static final String KEY_46 = "golf.charlie.46";
+
+	public static final String KEY_47 = "hotel.juliet.47";
+
+	public static final String KEY_48 = "india.quebec.48";
+
+	public static final String KEY_49 = "juliet.delta.49";
+
+	public static final String KEY_50 = "kilo.kilo.50";
+
+	public static final String KEY_51 = "lima.romeo.51";
+
+	public static final String KEY_52 = "mike.echo.52";
+
+	public static final String KEY_53 = "november.lima.53";
+
+	public static final String KEY_54 = "oscar.sierra.54";
+
+	public static final String KEY_55 = "papa.foxtrot.55";
+
+	public static final String KEY_56 = "quebec.mike.56";
+
+	public static final String KEY_57 = "romeo.tango.57";
+
+	public static final String KEY_58 = "sierra.golf.58";
+
+	public static final String KEY_59 = "tango.november.59";
+
+	public static final String KEY_60 = "alpha.alpha.60";
+
+	public static final String KEY_61 = "bravo.hotel.61";
+
+	public static final String KEY_62 = "charlie.oscar.62";
+
+	public static final String KEY_63 = "delta.bravo.63";
+
+	public static final String KEY_64 = "echo.india.64";
+
+	public static final String KEY_65 = "foxtrot.papa.65";
+
+	public static final String KEY_66 = "golf.charlie.66";
+
+	public static final String KEY_67 = "hotel.juliet.67";
+
+	public static final String KEY_68 = "india.quebec.68";
+
+	public static final String KEY_69 = "juliet.delta.69";
+
+	public static final String KEY_70 = "kilo.kilo.70";
+
+	public static final String KEY_71 = "lima.romeo.71";
+
+	public static final String KEY_72 = "mike.echo.72";
+
+	public static final String KEY_73 = "november.lima.73";
+
+	public static final String KEY_74 = "oscar.sierra.74";
+
+	public static final String KEY_75 = "papa.foxtrot.75";
+
+	public static final String KEY_76 = "quebec.mike.76";
+
+	public static final String KEY_77 = "romeo.tango.77";
+
+	public static final String KEY_78 = "sierra.golf.78";
+
+	public static final String KEY_79 = "tango.november.79";
+
+	public static final String KEY_80 = "alpha.alpha.80";
+
+	public static final String KEY_81 = "bravo.hotel.81";
+
+	public static final String KEY_82 = "charlie.oscar.82";
+
+	public static final String KEY_83 = "delta.bravo.83";
+
+	public static final String KEY_84 = "echo.india.84";
+
+	public static final String KEY_85 = "foxtrot.papa.85";
+
+	public static final String KEY_86 = "golf.charlie.86";
+
+	public static final String KEY_87 = "hotel.juliet.87";
+
+	public static final String KEY_88 = "india.quebec.88";
+
+	public static final String KEY_89 = "juliet.delta.89";
+
+	public static final String KEY_90 = "kilo.kilo.90";
+
+	public static final String KEY_91 = "lima.romeo.91";
+
+	public static final String KEY_92 = "mike.echo.92";
+
+	public static final String KEY_93 = "november.lima.93";
+
+	public static final String KEY_94 = "oscar.sierra.94";
+
+	public static final String KEY_95 = "papa.foxtrot.95";
+
+	public static final String KEY_96 = "quebec.mike.96";
+
+	public static final String KEY_97 = "romeo.tango.97";
+
+	public static final String KEY_98 = "sierra.golf.98";
+
+	public static final String KEY_99 = "tango.november.99";
+
+	public static final String KEY_100 = "alpha.alpha.100";
+
+	public static final String KEY_101 = "bravo.hotel.101";
+
+	public static final String KEY_102 = "charlie.oscar.102";
+
+	public static final String KEY_103 = "delta.bravo.103";
+
+	public static final String KEY_104 = "echo.india.104";
+
+	public static final String KEY_105 = "foxtrot.papa.105";
+
+	public static final String KEY_106 = "golf.charlie.106";
+
+	public static final String KEY_107 = "hotel.juliet.107";
+
+	public static final String KEY_108 = "india.quebec.108";
+
+	public static final String KEY_109 = "juliet.delta.109";
+
+	public static final String KEY_110 = "kilo.kilo.110";
+
+	public static final String KEY_111 = "lima.romeo.111";
+
+	public static final String KEY_112 = "mike.echo.112";
+
+	public static final String KEY_113 = "november.lima.113";
+
+	public static final String KEY_114 = "oscar.sierra.114";
+
+	public static final String KEY_115 = "papa.foxtrot.115";
+
+	public static final String KEY_116 = "quebec.mike.116";
+
+	public static final String KEY_117 = "romeo.tango.117";
+
+	public static final String KEY_118 = "sierra.golf.118";
+
+	public static final String KEY_119 = "tango.november.119";
+
+	private int[] ints = new int[120];
+
+	private long[] longs = new long[60];
+
+	private double[] doubles = new double[60];
+
+	public String[] keys() {
+		return new String[] {
+				KEY_0, KEY_1, KEY_2, KEY_3,
+				KEY_4, KEY_5, KEY_6, KEY_7,
+				KEY_8, KEY_9, KEY_10, KEY_11,
+				KEY_12, KEY_13, KEY_14, KEY_15,
+				KEY_16, KEY_17, KEY_18, KEY_19,
+				KEY_20, KEY_21, KEY_22, KEY_23,
+				KEY_24, KEY_25, KEY_26, KEY_27,
+				KEY_28, KEY_29, KEY_30, KEY_31,
+				KEY_32, KEY_33, KEY_34, KEY_35,
+				KEY_36, KEY_37, KEY_38, KEY_39,
+				KEY_40, KEY_41, KEY_42, KEY_43,
+				KEY_44, KEY_45, KEY_46, KEY_47,
+				KEY_48, KEY_49, KEY_50, KEY_51,
+				KEY_52, KEY_53, KEY_54, KEY_55,
+				KEY_56, KEY_57, KEY_58, KEY_59,
+				KEY_60, KEY_61, KEY_62, KEY_63,
+				KEY_64, KEY_65, KEY_66, KEY_67,
+				KEY_68, KEY_69, KEY_70, KEY_71,
+				KEY_72, KEY_73, KEY_74, KEY_75,
+				KEY_76, KEY_77, KEY_78, KEY_79,
+				KEY_80, KEY_81, KEY_82, KEY_83,
+				KEY_84, KEY_85, KEY_86, KEY_87,
+				KEY_88, KEY_89, KEY_90, KEY_91,
+				KEY_92, KEY_93, KEY_94, KEY_95,
+				KEY_96, KEY_97, KEY_98, KEY_99,
+				KEY_100, KEY_101, KEY_102, KEY_103,
+				KEY_104, KEY_105, KEY_106, KEY_107,
+				KEY_108, KEY_109, KEY_110, KEY_111,
+				KEY_112, KEY_113, KEY_114, KEY_115,
+				KEY_116, KEY_117, KEY_118, KEY_119
+		};
+	}
+
+	public void fill() {
+		ints[0] = 100000;
+		ints[1] = 107919;
+		ints[2] = 115838;
+		ints[3] = 123757;
+		ints[4] = 131676;
+		ints[5] = 139595;
+		ints[6] = 147514;
+		ints[7] = 155433;
+		ints[8] = 163352;
+		ints[9] = 171271;
+		ints[10] = 179190;
+		ints[11] = 187109;
+		ints[12] = 195028;
+		ints[13] = 202947;
+		ints[14] = 210866;
+		ints[15] = 218785;
+		ints[16] = 226704;
+		ints[17] = 234623;
+		ints[18] = 242542;
+		ints[19] = 250461;
+		ints[20] = 258380;
+		ints[21] = 266299;
+		ints[22] = 274218;
+		ints[23] = 282137;
+		ints[24] = 290056;
+		ints[25] = 297975;
+		ints[26] = 305894;
+		ints[27] = 313813;
+		ints[28] = 321732;
+		ints[29] = 329651;
+		ints[30] = 337570;
+		ints[31] = 345489;
+		ints[32] = 353408;
+		ints[33] = 361327;
+		ints[34] = 369246;
+		ints[35] = 377165;
+		ints[36] = 385084;
+		ints[37] = 393003;
+		ints[38] = 400922;
+		ints[39] = 408841;
+		ints[40] = 416760;
+		ints[41] = 424679;
+		ints[42] = 432598;
+		ints[43] = 440517;
+		ints[44] = 448436;
+		ints[45] = 456355;
+		ints[46] = 464274;
+		ints[47] = 472193;
+		ints[48] = 480112;
+		ints[49] = 488031;
+		ints[50] = 495950;
+		ints[51] = 503869;
+		ints[52] = 511788;
+		ints[53] = 519707;
+		ints[54] = 527626;
+		ints[55] = 535545;
+		ints[56] = 543464;
+		ints[57] = 551383;
+		ints[58] = 559302;
+		ints[59] = 567221;
+		ints[60] = 575140;
+		ints[61] = 583059;
+		ints[62] = 590978;
+		ints[63] = 598897;
+		ints[64] = 606816;
+		ints[65] = 614735;
+		ints[66] = 622654;
+		ints[67] = 630573;
+		ints[68] = 638492;
+		ints[69] = 646411;
+		ints[70] = 654330;
+		ints[71] = 662249;
+		ints[72] = 670168;
+		ints[73] = 678087;
+		ints[74] = 686006;
+		ints[75] = 693925;
+		ints[76] = 701844;
+		ints[77] = 709763;
+		ints[78] = 717682;
+		ints[79] = 725601;
+		ints[80] = 733520;
+		ints[81] = 741439;
+		ints[82] = 749358;
+		ints[83] = 757277;
+		ints[84] = 765196;
+		ints[85] = 773115;
+		ints[86] = 781034;
+		ints[87] = 788953;
+		ints[88] = 796872;
+		ints[89] = 804791;
+		ints[90] = 812710;
+		ints[91] = 820629;
+		ints[92] = 828548;
+		ints[93] = 836467;
+		ints[94] = 844386;
+		ints[95] = 852305;
+		ints[96] = 860224;
+		ints[97] = 868143;
+		ints[98] = 876062;
+		ints[99] = 883981;
+		ints[100] = 891900;
+		ints[101] = 899819;
+		ints[102] = 907738;
+		ints[103] = 915657;
+		ints[104] = 923576;
+		ints[105] = 931495;
+		ints[106] = 939414;
+		ints[107] = 947333;
+		ints[108] = 955252;
+		ints[109] = 963171;
+		ints[110] = 971090;
+		ints[111] = 979009;
+		ints[112] = 986928;
+		ints[113] = 994847;
+		ints[114] = 1002766;
+		ints[115] = 1010685;
+		ints[116] = 1018604;
+		ints[117] = 1026523;
+		ints[118] = 1034442;
+		ints[119] = 1042361;
+		longs[0] = 10000000000L;
+		doubles[0] = 0.1;
+		longs[1] = 10000104729L;
+		doubles[1] = 1.38;
+		longs[2] = 10000209458L;
+		doubles[2] = 2.75;
+		longs[3] = 10000314187L;
+		doubles[3] = 3.12;
+		longs[4] = 10000418916L;
+		doubles[4] = 4.49;
+		longs[5] = 10000523645L;
+		doubles[5] = 5.86;
+		longs[6] = 10000628374L;
+		doubles[6] = 6.23;
+		longs[7] = 10000733103L;
+		doubles[7] = 7.60;
+		longs[8] = 10000837832L;
+		doubles[8] = 8.97;
+		longs[9] = 10000942561L;
+		doubles[9] = 9.34;
+		longs[10] = 10001047290L;
+		doubles[10] = 10.71;
+		longs[11] = 10001152019L;
+		doubles[11] = 11.8;
+		longs[12] = 10001256748L;
+		doubles[12] = 12.45;
+		longs[13] = 10001361477L;
+		doubles[13] = 13.82;
+		longs[14] = 10001466206L;
+		doubles[14] = 14.19;
+		longs[15] = 10001570935L;
+		doubles[15] = 15.56;
+		longs[16] = 10001675664L;
+		doubles[16] = 16.93;
+		longs[17] = 10001780393L;
+		doubles[17] = 17.30;
+		longs[18] = 10001885122L;
+		doubles[18] = 18.67;
+		longs[19] = 10001989851L;
+		doubles[19] = 19.4;
+		longs[20] = 10002094580L;
+		doubles[20] = 20.41;
+		longs[21] = 10002199309L;
+		doubles[21] = 21.78;
+		longs[22] = 10002304038L;
+		doubles[22] = 22.15;
+		longs[23] = 10002408767L;
+		doubles[23] = 23.52;
+		longs[24] = 10002513496L;
+		doubles[24] = 24.89;
+		longs[25] = 10002618225L;
+		doubles[25] = 25.26;
+		longs[26] = 10002722954L;
+		doubles[26] = 26.63;
+		longs[27] = 10002827683L;
+		doubles[27] = 27.100;
+		longs[28] = 10002932412L;
+		doubles[28] = 28.37;
+		longs[29] = 10003037141L;
+		doubles[29] = 29.74;
+		longs[30] = 10003141870L;
+		doubles[30] = 30.11;
+		longs[31] = 10003246599L;
+		doubles[31] = 31.48;
+		longs[32] = 10003351328L;
+		doubles[32] = 32.85;
+		longs[33] = 10003456057L;
+		doubles[33] = 33.22;
+		longs[34] = 10003560786L;
+		doubles[34] = 34.59;
+		longs[35] = 10003665515L;
+		doubles[35] = 35.96;
+		longs[36] = 10003770244L;
+		doubles[36] = 36.33;
+		longs[37] = 10003874973L;
+		doubles[37] = 37.70;
+		longs[38] = 10003979702L;
+		doubles[38] = 38.7;
+		longs[39] = 10004084431L;
+		doubles[39] = 39.44;
+		longs[40] = 10004189160L;
+		doubles[40] = 40.81;
+		longs[41] = 10004293889L;
+		doubles[41] = 41.18;
+		longs[42] = 10004398618L;
+		doubles[42] = 42.55;
+		longs[43] = 10004503347L;
+		doubles[43] = 43.92;
+		longs[44] = 10004608076L;
+		doubles[44] = 44.29;
+		longs[45] = 10004712805L;
+		doubles[45] = 45.66;
+		longs[46] = 10004817534L;
+		doubles[46] = 46.3;
+		longs[47] = 10004922263L;
+		doubles[47] = 47.40;
+		longs[48] = 10005026992L;
+		doubles[48] = 48.77;
+		longs[49] = 10005131721L;
+		doubles[49] = 49.14;
+		longs[50] = 10005236450L;
+		doubles[50] = 50.51;
+		longs[51] = 10005341179L;
+		doubles[51] = 51.88;
+		longs[52] = 10005445908L;
+		doubles[52] = 52.25;
+		longs[53] = 10005550637L;
+		doubles[53] = 53.62;
+		longs[54] = 10005655366L;
+		doubles[54] = 54.99;
+		longs[55] = 10005760095L;
+		doubles[55] = 55.36;
+		longs[56] = 10005864824L;
+		doubles[56] = 56.73;
+		longs[57] = 10005969553L;
+		doubles[57] = 57.10;
+		longs[58] = 10006074282L;
+		doubles[58] = 58.47;
+		longs[59] = 10006179011L;
+		doubles[59] = 59.84;
+	}
+
+	public int lookup(String key) {
+		if (key.equals(KEY_0))
+			return ints[0] + String.valueOf(longs[0]).length();
+		if (key.equals(KEY_3))
+			return ints[3] + String.valueOf(longs[1]).length();
+		if (key.equals(KEY_6))
+			return ints[6] + String.valueOf(longs[3]).length();
+		if (key.equals(KEY_9))
+			return ints[9] + String.valueOf(longs[4]).length();
+		if (key.equals(KEY_12))
+			return ints[12] + String.valueOf(longs[6]).length();
+		if (key.equals(KEY_15))
+			return ints[15] + String.valueOf(longs[7]).length();
+		if (key.equals(KEY_18))
+			return ints[18] + String.valueOf(longs[9]).length();
+		if (key.equals(KEY_21))
+			return ints[21] + String.valueOf(longs[10]).length();
+		if (key.equals(KEY_24))
+			return ints[24] + String.valueOf(longs[12]).length();
+		if (key.equals(KEY_27))
+			return ints[27] + String.valueOf(longs[13]).length();
+		if (key.equals(KEY_30))
+			return ints[30] + String.valueOf(longs[15]).length();
+		if (key.equals(KEY_33))
+			return ints[33] + String.valueOf(longs[16]).length();
+		if (key.equals(KEY_36))
+			return ints[36] + String.valueOf(longs[18]).length();
+		if (key.equals(KEY_39))
+			return ints[39] + String.valueOf(longs[19]).length();
+		if (key.equals(KEY_42))
+			return ints[42] + String.valueOf(longs[21]).length();
+		if (key.equals(KEY_45))
+			return ints[45] + String.valueOf(longs[22]).length();
+		if (key.equals(KEY_48))
+			return ints[48] + String.valueOf(longs[24]).length();
+		if (key.equals(KEY_51))
+			return ints[51] + String.valueOf(longs[25]).length();
+		if (key.equals(KEY_54))
+			return ints[54] + String.valueOf(longs[27]).length();
+		if (key.equals(KEY_57))
+			return ints[57] + String.valueOf(longs[28]).length();
+		if (key.equals(KEY_60))
+			return ints[60] + String.valueOf(longs[30]).length();
+		if (key.equals(KEY_63))
+			return ints[63] + String.valueOf(longs[31]).length();
+		if (key.equals(KEY_66))
+			return ints[66] + String.valueOf(longs[33]).length();
+		if (key.equals(KEY_69))
+			return ints[69] + String.valueOf(longs[34]).length();
+		if (key.equals(KEY_72))
+			return ints[72] + String.valueOf(longs[36]).length();
+		if (key.equals(KEY_75))
+			return ints[75] + String.valueOf(longs[37]).length();
+		if (key.equals(KEY_78))
+			return ints[78] + String.valueOf(longs[39]).length();
+		if (key.equals(KEY_81))
+			return ints[81] + String.valueOf(longs[40]).length();
+		if (key.equals(KEY_84))
+			return ints[84] + String.valueOf(longs[42]).length();
+		if (key.equals(KEY_87))
+			return ints[87] + String.valueOf(longs[43]).length();
+		if (key.equals(KEY_90))
+			return ints[90] + String.valueOf(longs[45]).length();
+		if (key.equals(KEY_93))
+			return ints[93] + String.valueOf(longs[46]).length();
+		if (key.equals(KEY_96))
+			return ints[96] + String.valueOf(longs[48]).length();
+		if (key.equals(KEY_99))
+			return ints[99] + String.valueOf(longs[49]).length();
+		if (key.equals(KEY_102))
+			return ints[102] + String.valueOf(longs[51]).length();
+		if (key.equals(KEY_105))
+			return ints[105] + String.valueOf(longs[52]).length();
+		if (key.equals(KEY_108))
+			return ints[108] + String.valueOf(longs[54]).length();
+		if (key.equals(KEY_111))
+			return ints[111] + String.valueOf(longs[55]).length();
+		if (key.equals(KEY_114))
+			return ints[114] + String.valueOf(longs[57]).length();
+		if (key.equals(KEY_117))
+			return ints[117] + String.valueOf(longs[58]).length();
+		return -1;
+	}
+
+	public StringBuffer describe() {
+		StringBuffer sb = new StringBuffer();
+		sb.append("ALPHA0").append(ints[0]).append('/').append(doubles[0]);
+		sb.append("CHARLIE2").append(ints[2]).append('/').append(doubles[2]);
+		sb.append("ECHO4").append(ints[4]).append('/').append(doubles[4]);
+		sb.append("GOLF6").append(ints[6]).append('/').append(doubles[6]);
+		sb.append("INDIA8").append(ints[8]).append('/').append(doubles[8]);
+		sb.append("KILO10").append(ints[10]).append('/').append(doubles[10]);
+		sb.append("MIKE12").append(ints[12]).append('/').append(doubles[12]);
+		sb.append("OSCAR14").append(ints[14]).append('/').append(doubles[14]);
+		sb.append("QUEBEC16").append(ints[16]).append('/').append(doubles[16]);
+		sb.append("SIERRA18").append(ints[18]).append('/').append(doubles[18]);
+		sb.append("ALPHA20").append(ints[20]).append('/').append(doubles[20]);
+		sb.append("CHARLIE22").append(ints[22]).append('/').append(doubles[22]);
+		sb.append("ECHO24").append(ints[24]).append('/').append(doubles[24]);
+		sb.append("GOLF26").append(ints[26]).append('/').append(doubles[26]);
+		sb.append("INDIA28").append(ints[28]).append('/').append(doubles[28]);
+		sb.append("KILO30").append(ints[30]).append('/').append(doubles[30]);
+		sb.append("MIKE32").append(ints[32]).append('/').append(doubles[32]);
+		sb.append("OSCAR34").append(ints[34]).append('/').append(doubles[34]);
+		sb.append("QUEBEC36").append(ints[36]).append('/').append(doubles[36]);
+		sb.append("SIERRA38").append(ints[38]).append('/').append(doubles[38]);
+		sb.append("ALPHA40").append(ints[40]).append('/').append(doubles[40]);
+		sb.append("CHARLIE42").append(ints[42]).append('/').append(doubles[42]);
+		sb.append("ECHO44").append(ints[44]).append('/').append(doubles[44]);
+		sb.append("GOLF46").append(ints[46]).append('/').append(doubles[46]);
+		sb.append("INDIA48").append(ints[48]).append('/').append(doubles[48]);
+		sb.append("KILO50").append(ints[50]).append('/').append(doubles[50]);
+		sb.append("MIKE52").append(ints[52]).append('/').append(doubles[52]);
+		sb.append("OSCAR54").append(ints[54]).append('/').append(doubles[54]);
+		sb.append("QUEBEC56").append(ints[56]).append('/').append(doubles[56]);
+		sb.append("SIERRA58").append(ints[58]).append('/').append(doubles[58]);
+		return sb;
+	}
+}
@@ -0,0 +1,534 @@
+/*
+ * @(#) enumswitch/SwitchMaps.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package enumswitch;
+
+public class SwitchMaps {
+
+	public static int colorCode0(Color color) {
+		switch (color) {
+		case GREEN:
+			return 7;
+		case BLUE:
+			return 14;
+		case MAGENTA:
+			return 28;
+		case YELLOW:
+			return 35;
+		case WHITE:
+			return 49;
+		case GRAY:
+			return 56;
+		case PINK:
+			return 70;
+		case BROWN:
+			return 77;
+		case NAVY:
+			return 91;
+		case TEAL:
+			return 98;
+		case SILVER:
+			return 112;
+		case GOLD:
+			return 119;
+		case INDIGO:
+			return 133;
+		case VIOLET:
+			return 140;
+		case SALMON:
+			return 154;
+		case KHAKI:
+			return 161;
+		case ORCHID:
+			return 175;
+		case TAN:
+			return 182;
+		case IVORY:
+			return 196;
+		case AZURE:
+			return 203;
+		case SNOW:
+			return 217;
+		default:
+			return -1;
+		}
+	}
+
+	public static int colorCode1(Color color) {
+		switch (color) {
+		case RED:
+			return 1;
+		case GREEN:
+			return 8;
+		case CYAN:
+			return 22;
+		case MAGENTA:
+			return 29;
+		case BLACK:
+			return 43;
+		case WHITE:
+			return 50;
+		case ORANGE:
+			return 64;
+		case PINK:
+			return 71;
+		case OLIVE:
+			return 85;
+		case NAVY:
+			return 92;
+		case MAROON:
+			return 106;
+		case SILVER:
+			return 113;
+		case LIME:
+			return 127;
+		case INDIGO:
+			return 134;
+		case CORAL:
+			return 148;
+		case SALMON:
+			return 155;
+		case PLUM:
+			return 169;
+		case ORCHID:
+			return 176;
+		case BEIGE:
+			return 190;
+		case IVORY:
+			return 197;
+		case LINEN:
+			return 211;
+		case SNOW:
+			return 218;
+		default:
+			return -1;
+		}
+	}
+
+	public static int colorCode2(Color color) {
+		switch (color) {
+		case RED:
+			return 2;
+		case BLUE:
+			return 16;
+		case CYAN:
+			return 23;
+		case YELLOW:
+			return 37;
+		case BLACK:
+			return 44;
+		case GRAY:
+			return 58;
+		case ORANGE:
+			return 65;
+		case BROWN:
+			return 79;
+		case OLIVE:
+			return 86;
+		case TEAL:
+			return 100;
+		case MAROON:
+			return 107;
+		case GOLD:
+			return 121;
+		case LIME:
+			return 128;
+		case VIOLET:
+			return 142;
+		case CORAL:
+			return 149;
+		case KHAKI:
+			return 163;
+		case PLUM:
+			return 170;
+		case TAN:
+			return 184;
+		case BEIGE:
+			return 191;
+		case AZURE:
+			return 205;
+		case LINEN:
+			return 212;
+		default:
+			return -1;
+		}
+	}
+
+	public static int colorCode3(Color color) {
+		switch (color) {
+		case GREEN:
+			return 10;
+		case BLUE:
+			return 17;
+		case MAGENTA:
+			return 31;
+		case YELLOW:
+			return 38;
+		case WHITE:
+			return 52;
+		case GRAY:
+			return 59;
+		case PINK:
+			return 73;
+		case BROWN:
+			return 80;
+		case NAVY:
+			return 94;
+		case TEAL:
+			return 101;
+		case SILVER:
+			return 115;
+		case GOLD:
+			return 122;
+		case INDIGO:
+			return 136;
+		case VIOLET:
+			return 143;
+		case SALMON:
+			return 157;
+		case KHAKI:
+			return 164;
+		case ORCHID:
+			return 178;
+		case TAN:
+			return 185;
+		case IVORY:
+			return 199;
+		case AZURE:
+			return 206;
+		case SNOW:
+			return 220;
+		default:
+			return -1;
+		}
+	}
+
+	public static int colorCode4(Color color) {
+		switch (color) {
+		case RED:
+			return 4;
+		case GREEN:
+			return 11;
+		case CYAN:
+			return 25;
+		case MAGENTA:
+			return 32;
+		case BLACK:
+			return 46;
+		case WHITE:
+			return 53;
+		case ORANGE:
+			return 67;
+		case PINK:
+			return 74;
+		case OLIVE:
+			return 88;
+		case NAVY:
+			return 95;
+		case MAROON:
+			return 109;
+		case SILVER:
+			return 116;
+		case LIME:
+			return 130;
+		case INDIGO:
+			return 137;
+		case CORAL:
+			return 151;
+		case SALMON:
+			return 158;
+		case PLUM:
+			return 172;
+		case ORCHID:
+			return 179;
+		case BEIGE:
+			return 193;
+		case IVORY:
+			return 200;
+		case LINEN:
+			return 214;
+		case SNOW:
+			return 221;
+		default:
+			return -1;
+		}
+	}
+
+	public static int colorCode5(Color color) {
+		switch (color) {
+		case RED:
+			return 5;
+		case BLUE:
+			return 19;
+		case CYAN:
+			return 26;
+		case YELLOW:
+			return 40;
+		case BLACK:
+			return 47;
+		case GRAY:
+			return 61;
+		case ORANGE:
+			return 68;
+		case BROWN:
+			return 82;
+		case OLIVE:
+			return 89;
+		case TEAL:
+			return 103;
+		case MAROON:
+			return 110;
+		case GOLD:
+			return 124;
+		case LIME:
+			return 131;
+		case VIOLET:
+			return 145;
+		case CORAL:
+			return 152;
+		case KHAKI:
+			return 166;
+		case PLUM:
+			return 173;
+		case TAN:
+			return 187;
+		case BEIGE:
+			return 194;
+		case AZURE:
+			return 208;
+		case LINEN:
+			return 215;
+		default:
+			return -1;
+		}
+	}
+
+	public static String tokenName0(TokenKind kind) {
+		switch (kind) {
+		case NUMBER:
+			return "number0";
+		case STRING:
+			return "string0";
+		case LPAREN:
+			return "lparen0";
+		case LBRACE:
+			return "lbrace0";
+		case RBRACE:
+			return "rbrace0";
+		case COMMA:
+			return "comma0";
+		case DOT:
+			return "dot0";
+		case PLUS:
+			return "plus0";
+		case MINUS:
+			return "minus0";
+		case SLASH:
+			return "slash0";
+		case EQ:
+			return "eq0";
+		case NE:
+			return "ne0";
+		case GT:
+			return "gt0";
+		case LE:
+			return "le0";
+		case GE:
+			return "ge0";
+		case OR:
+			return "or0";
+		case NOT:
+			return "not0";
+		case EOF:
+			return "eof0";
+		default:
+			return null;
+		}
+	}
+
+	public static String tokenName1(TokenKind kind) {
+		switch (kind) {
+		case IDENT:
+			return "ident1";
+		case NUMBER:
+			return "number1";
+		case STRING:
+			return "string1";
+		case RPAREN:
+			return "rparen1";
+		case LBRACE:
+			return "lbrace1";
+		case RBRACE:
+			return "rbrace1";
+		case SEMI:
+			return "semi1";
+		case DOT:
+			return "dot1";
+		case PLUS:
+			return "plus1";
+		case STAR:
+			return "star1";
+		case SLASH:
+			return "slash1";
+		case EQ:
+			return "eq1";
+		case LT:
+			return "lt1";
+		case GT:
+			return "gt1";
+		case LE:
+			return "le1";
+		case AND:
+			return "and1";
+		case OR:
+			return "or1";
+		case NOT:
+			return "not1";
+		default:
+			return null;
+		}
+	}
+
+	public static String tokenName2(TokenKind kind) {
+		switch (kind) {
+		case IDENT:
+			return "ident2";
+		case NUMBER:
+			return "number2";
+		case LPAREN:
+			return "lparen2";
+		case RPAREN:
+			return "rparen2";
+		case LBRACE:
+			return "lbrace2";
+		case COMMA:
+			return "comma2";
+		case SEMI:
+			return "semi2";
+		case DOT:
+			return "dot2";
+		case MINUS:
+			return "minus2";
+		case STAR:
+			return "star2";
+		case SLASH:
+			return "slash2";
+		case NE:
+			return "ne2";
+		case LT:
+			return "lt2";
+		case GT:
+			return "gt2";
+		case GE:
+			return "ge2";
+		case AND:
+			return "and2";
+		case OR:
+			return "or2";
+		case EOF:
+			return "eof2";
+		default:
+			return null;
+		}
+	}
+
+	public static String tokenName3(TokenKind kind) {
+		switch (kind) {
+		case IDENT:
+			return "ident3";
+		case STRING:
+			return "string3";
+		case LPAREN:
+			return "lparen3";
+		case RPAREN:
+			return "rparen3";
+		case RBRACE:
+			return "rbrace3";
+		case COMMA:
+			return "comma3";
+		case SEMI:
+			return "semi3";
+		case PLUS:
+			return "plus3";
+		case MINUS:
+			return "minus3";
+		case STAR:
+			return "star3";
+		case EQ:
+			return "eq3";
+		case NE:
+			return "ne3";
+		case LT:
+			return "lt3";
+		case LE:
+			return "le3";
+		case GE:
+			return "ge3";
+		case AND:
+			return "and3";
+		case NOT:
+			return "not3";
+		case EOF:
+			return "eof3";
+		default:
+			return null;
+		}
+	}
+
+	public static int mixed(Color color, TokenKind kind) {
+		int result = 0;
+		switch (color) {
+		case RED:
+		case GREEN:
+			result = 1;
+			break;
+		case BLUE:
+			result = 2;
+			break;
+		default:
+			break;
+		}
+		switch (kind) {
+		case IDENT:
+			return result + 10;
+		case NUMBER:
+			return result + 20;
+		default:
+			return result;
+		}
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * @(#) inner/Outer.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package inner;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class Outer {
+
+	private int value;
+
+	private final String name;
+
+	public Outer(String name, int value) {
+		this.name = name;
+		this.value = value;
+	}
+
+	public class Member {
+
+		private final int delta;
+
+		public Member(int delta) {
+			this.delta = delta;
+		}
+
+		public int sum() {
+			return value + delta;
+		}
+
+		public class Deeper {
+
+			public String describe() {
+				return name + ":" + sum();
+			}
+		}
+	}
+
+	public static class Nested {
+
+		private static final Class TYPE = Outer.class;
+
+		public String typeName() {
+			assert TYPE != null;
+			return TYPE.getName();
+		}
+	}
+
+	public Iterator values(final int[] array) {
+		return new Iterator() {
+
+			private int pos;
+
+			private boolean removed = false;
+
+			public boolean hasNext() {
+				return pos < array.length;
+			}
+
+			public Object next() {
+				if (pos >= array.length)
+					throw new NoSuchElementException();
+				return new Integer(array[pos++] + value);
+			}
+
+			public void remove() {
+				removed = true;
+			}
+		};
+	}
+
+	public Comparator comparator(final boolean reverse) {
+		class LocalComparator implements Comparator {
+
+			private int calls;
+
+			public int compare(Object a, Object b) {
+				calls++;
+				int res = ((Comparable) a).compareTo(b);
+				return reverse ? -res : res;
+			}
+		}
+		return new LocalComparator();
+	}
+
+	public Runnable[] tasks(final String prefix) {
+		Runnable[] tasks = new Runnable[3];
+		tasks[0] = new Runnable() {
+
+			public void run() {
+				value++;
+			}
+		};
+		tasks[1] = new Runnable() {
+
+			private String text = null;
+
+			public void run() {
+				text = prefix + name;
+			}
+		};
+		tasks[2] = new Runnable() {
+
+			public void run() {
+				assert prefix != null : "prefix";
+				new Member(value).new Deeper().describe();
+			}
+		};
+		return tasks;
+	}
+
+	private static int secret() {
+		return 42;
+	}
+
+	public static class Accessor {
+
+		public int peek(Outer outer) {
+			return outer.value + secret();
+		}
+	}
+}
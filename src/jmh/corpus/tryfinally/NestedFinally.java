@@ -0,0 +1,145 @@
+/*
+ * @(#) tryfinally/NestedFinally.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package tryfinally;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public class NestedFinally {
+
+	private final Object lock = new Object();
+
+	private int counter;
+
+	public int nested(InputStream in, OutputStream out) throws IOException {
+		int count = 0;
+		try {
+			count++;
+			try {
+				count += in.read();
+				try {
+					out.write(count);
+					try {
+						synchronized (lock) {
+							counter += count;
+						}
+					} finally {
+						count--;
+					}
+				} finally {
+					out.flush();
+				}
+			} finally {
+				in.close();
+			}
+		} finally {
+			out.close();
+		}
+		return count;
+	}
+
+	public int catchAndFinally(InputStream in) {
+		int result = 0;
+		for (int i = 0; i < 4; i++) {
+			try {
+				result += in.read();
+			} catch (IOException e) {
+				result = -1;
+			} catch (RuntimeException e) {
+				result = -2;
+			} finally {
+				counter++;
+			}
+		}
+		return result;
+	}
+
+	public String returnInFinally(String value) {
+		try {
+			if (value == null)
+				return "null";
+			try {
+				return value.trim();
+			} finally {
+				counter--;
+			}
+		} finally {
+			synchronized (this) {
+				counter++;
+			}
+		}
+	}
+
+	public void loops(InputStream[] streams) throws IOException {
+		for (int i = 0; i < streams.length; i++) {
+			try {
+				while (streams[i].available() > 0) {
+					try {
+						if (streams[i].read() < 0)
+							break;
+					} finally {
+						counter++;
+					}
+				}
+			} finally {
+				try {
+					streams[i].close();
+				} finally {
+					streams[i] = null;
+				}
+			}
+		}
+	}
+
+	public synchronized int synchronizedNested(int[] values) {
+		int sum = 0;
+		synchronized (lock) {
+			try {
+				for (int i = 0; i < values.length; i++) {
+					synchronized (values) {
+						sum += values[i];
+					}
+				}
+			} finally {
+				counter = sum;
+			}
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * @(#) net/sf/jadretro/ClassFileBenchmark.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassFileBenchmark {
+
+	private ClassOutputBuffer out = new ClassOutputBuffer(0x10000);
+
+	@Benchmark
+	public void parse(CorpusState state, Blackhole blackhole)
+			throws IOException {
+		byte[][] classBytes = state.classBytes;
+		for (int i = 0; i < classBytes.length; i++) {
+			blackhole.consume(new ClassFile(classBytes[i],
+					classBytes[i].length));
+		}
+	}
+
+	@Benchmark
+	public void fixLocalClassNames(FreshClassFiles fresh, Blackhole blackhole)
+			throws BadClassFileException {
+		ClassFile[] classFiles = fresh.classFiles;
+		for (int i = 0; i < classFiles.length; i++) {
+			blackhole.consume(Main.fixLocalClassNames(classFiles[i]));
+		}
+	}
+
+	@Benchmark
+	public void process(FreshClassFiles fresh, Blackhole blackhole)
+			throws BadClassFileException {
+		ClassFile[] classFiles = fresh.classFiles;
+		for (int i = 0; i < classFiles.length; i++) {
+			blackhole.consume(Main.process(classFiles[i], true, false,
+					false));
+		}
+	}
+
+	@Benchmark
+	public int write(CorpusState state) throws IOException {
+		ClassFile[] classFiles = state.transformedClassFiles;
+		int size = 0;
+		for (int i = 0; i < classFiles.length; i++) {
+			out.reset();
+			classFiles[i].writeTo(out);
+			size += out.size();
+		}
+		return size;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * @(#) net/sf/jadretro/CorpusState.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Vector;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class CorpusState {
+
+	static final String CORPUS_PROPERTY = "jadretro.corpus";
+
+	@Param( { "enumswitch", "tryfinally", "inner", "constpool" })
+	public String corpus;
+
+	byte[][] classBytes;
+
+	ClassFile[] transformedClassFiles;
+
+	@Setup(Level.Trial)
+	public void loadCorpus() throws IOException {
+		String dirName = System.getProperty(CORPUS_PROPERTY);
+		if (dirName == null)
+			throw new IllegalStateException("System property "
+					+ CORPUS_PROPERTY + " is not set");
+		File[] files = new File(dirName, corpus).listFiles();
+		Vector entries = new Vector();
+		if (files != null) {
+			for (int i = 0; i < files.length; i++) {
+				if (files[i].getName().endsWith(".class")) {
+					entries.addElement(readFile(files[i]));
+				}
+			}
+		}
+		if (entries.isEmpty())
+			throw new IllegalStateException("No class files in: "
+					+ new File(dirName, corpus).getPath());
+		classBytes = new byte[entries.size()][];
+		entries.copyInto(classBytes);
+		transformedClassFiles = parseAll();
+		for (int i = 0; i < transformedClassFiles.length; i++) {
+			Main.fixLocalClassNames(transformedClassFiles[i]);
+			Main.process(transformedClassFiles[i], true, false, false);
+		}
+	}
+
+	ClassFile[] parseAll() throws IOException {
+		ClassFile[] parsed = new ClassFile[classBytes.length];
+		for (int i = 0; i < classBytes.length; i++) {
+			parsed[i] = new ClassFile(classBytes[i], classBytes[i].length);
+		}
+		return parsed;
+	}
+
+	private static byte[] readFile(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			byte[] buf = new byte[0x1000];
+			int res;
+			while ((res = in.read(buf)) >= 0) {
+				baos.write(buf, 0, res);
+			}
+			return baos.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
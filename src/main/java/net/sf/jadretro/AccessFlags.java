@@ -38,13 +38,15 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class AccessFlags extends ClassEntity {
 
+	private static final int ACC_ABSTRACT = 0x400;
+
 	private static final int ACC_FINAL = 0x10;
 
+	private static final int ACC_INTERFACE = 0x200;
+
 	private static final int ACC_STATIC = 0x8;
 
 	private static final int ACC_SYNTHETIC = 0x1000;
@@ -59,7 +61,7 @@ final class AccessFlags extends ClassEntity {
 		this.flags = flags;
 	}
 
-	AccessFlags(InputStream in) throws IOException {
+	AccessFlags(ClassInputBuffer in) throws IOException {
 		flags = readUnsignedShort(in);
 	}
 
@@ -67,14 +69,22 @@ final class AccessFlags extends ClassEntity {
 		return new AccessFlags(ACC_STATIC);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		writeShort(out, flags);
 	}
 
+	boolean isAbstract() {
+		return (flags & ACC_ABSTRACT) != 0;
+	}
+
 	boolean isFinal() {
 		return (flags & ACC_FINAL) != 0;
 	}
 
+	boolean isInterface() {
+		return (flags & ACC_INTERFACE) != 0;
+	}
+
 	boolean isStatic() {
 		return (flags & ACC_STATIC) != 0;
 	}
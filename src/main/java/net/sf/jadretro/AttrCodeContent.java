@@ -37,143 +37,220 @@
 
 package net.sf.jadretro;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Hashtable;
-import java.util.Vector;
 
 final class AttrCodeContent extends AttrContent {
 
-	private static final OpByteCode DUMMY_OPCODE = new OpCodeSimple(0);
-
 	private int maxStack;
 
 	private int maxLocals;
 
-	private final Vector opByteCodes = new Vector();
+	private/* final */CodeEditLog editLog = new CodeEditLog();
+
+	private/* final */OpCodeArray opCodes = new OpCodeArray(editLog);
+
+	private BranchTargetIndex branchIndex;
+
+	private/* final */OpCodeKindIndex kindIndex;
+
+	private byte[] rawCode;
+
+	private int[] rawOffsets;
 
-	private/* final */Vector exceptions;
+	private ClassFile classFile;
 
-	private/* final */Vector attributes;
+	private/* final */ObjVector exceptions;
 
-	AttrCodeContent() {
-		exceptions = new Vector(1);
-		attributes = new Vector(0);
+	private/* final */ObjVector attributes;
+
+	AttrCodeContent(ClassFile classFile) {
+		this.classFile = classFile;
+		exceptions = new ObjVector(1);
+		attributes = new ObjVector(0);
+		kindIndex = new OpCodeKindIndex(0);
 	}
 
-	AttrCodeContent(InputStream in, ClassFile classFile) throws IOException {
+	AttrCodeContent(ClassInputBuffer in, ClassFile classFile)
+			throws IOException {
 		maxStack = readUnsignedShort(in);
 		maxLocals = readUnsignedShort(in);
-		int[] indices = readCodeFrom(in, classFile);
+		int codeLen = readInt(in);
+		if (codeLen <= 0)
+			throw new BadClassFileException();
+		byte[] bytes = new byte[codeLen];
+		readFully(in, bytes);
 		int exceptionsCount = readUnsignedShort(in);
-		exceptions = new Vector(exceptionsCount);
+		exceptions = new ObjVector(exceptionsCount);
 		while (exceptionsCount-- > 0) {
 			exceptions.addElement(new ExceptionCatch(in, classFile));
 		}
 		attributes = readAttributes(in, classFile);
-		mapLabelsPcInner(indices);
+		int[] indices = scanRawCode(bytes, classFile.getConstantPoolCount());
+		mapLabelsPcForArray(exceptions, indices);
+		mapLabelsPcForArray(attributes, indices);
+		bindLabelsForArray(exceptions, editLog);
+		bindLabelsForArray(attributes, editLog);
+		rawCode = bytes;
+		rawOffsets = rawOffsetsOf(indices);
+		kindIndex = kindIndexOf(bytes, rawOffsets);
+		this.classFile = classFile;
 	}
 
 	static String nameValue() {
 		return "Code";
 	}
 
-	private int[] readCodeFrom(InputStream in, ClassFile classFile)
+	static int[] scanRawCode(byte[] bytes, int constPoolCount)
 			throws IOException {
-		if (getOpCodesCount() != 0)
-			throw new BadClassFileException();
-		int codeLen = readInt(in);
-		if (codeLen <= 0)
-			throw new BadClassFileException();
-		byte[] bytes = new byte[codeLen];
-		readFully(in, bytes);
-		ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
-		int[] indices = new int[bytes.length + 1];
-		for (int i = indices.length - 2; i > 0; i--) {
+		int codeLen = bytes.length;
+		int[] indices = new int[codeLen + 1];
+		for (int i = codeLen - 1; i > 0; i--) {
 			indices[i] = -1;
 		}
+		int count = 0;
 		try {
-			int remain;
-			while ((remain = bais.available()) > 0) {
-				int op = readUnsignedByte(bais);
-				OpByteCode opCode = OpCodeVar.decode(op, bais);
-				int curPc = bytes.length - remain;
-				indices[curPc] = opByteCodes.size();
-				if (opCode == null) {
-					opCode = OpCodeJump.decode(op, bais, curPc);
-					if (opCode == null) {
-						opCode = OpCodeSwitch.decode(op, bais, curPc);
-						if (opCode == null) {
-							opCode = OpCodeConst.decode(op, bais, classFile);
-							if (opCode == null) {
-								opCode = new OpCodeSimple(op);
-							}
-						}
-					}
+			int pc = 0;
+			do {
+				indices[pc] = count++;
+				int op = bytes[pc] & 0xff;
+				int len = OpCodeVar.rawLength(op, bytes, pc);
+				if (len == 0 && (len = OpCodeJump.rawLength(op)) == 0
+						&& (len = OpCodeSwitch.rawLength(op, bytes, pc)) == 0
+						&& (len = OpCodeConst.rawLength(op, bytes, pc,
+								constPoolCount)) == 0) {
+					len = 1;
+				}
+				if (codeLen - pc < len)
+					throw new BadClassFileException();
+				pc += len;
+			} while (pc < codeLen);
+			indices[codeLen] = count;
+			for (pc = 0; pc < codeLen; pc++) {
+				if (indices[pc] >= 0) {
+					int op = bytes[pc] & 0xff;
+					OpCodeJump.checkRawTargets(op, bytes, pc, indices);
+					OpCodeSwitch.checkRawTargets(op, bytes, pc, indices);
 				}
-				opByteCodes.addElement(opCode);
 			}
 		} catch (EOFException e) {
 			throw new BadClassFileException();
 		}
-		indices[bytes.length] = opByteCodes.size();
 		return indices;
 	}
 
-	private void mapLabelsPcInner(int[] indices) throws BadClassFileException {
-		mapLabelsPcForArray(opByteCodes, indices);
-		mapLabelsPcForArray(exceptions, indices);
-		mapLabelsPcForArray(attributes, indices);
+	private static int[] rawOffsetsOf(int[] indices) {
+		int codeLen = indices.length - 1;
+		int[] offsets = new int[indices[codeLen] + 1];
+		for (int pc = 0; pc <= codeLen; pc++) {
+			if (indices[pc] >= 0) {
+				offsets[indices[pc]] = pc;
+			}
+		}
+		return offsets;
+	}
+
+	private static OpCodeKindIndex kindIndexOf(byte[] bytes, int[] offsets) {
+		int count = offsets.length - 1;
+		OpCodeKindIndex kindIndex = new OpCodeKindIndex(count);
+		for (int i = 0; i < count; i++) {
+			int pc = offsets[i];
+			int op = bytes[pc] & 0xff;
+			int kind = OpCodeVar.rawKind(op, bytes, pc);
+			if (kind >= 0 || (kind = OpCodeConst.kindOf(op)) >= 0) {
+				kindIndex.set(i, kind);
+			}
+		}
+		return kindIndex;
+	}
+
+	private void decodeRawCode() {
+		byte[] bytes = rawCode;
+		if (bytes != null) {
+			int[] offsets = rawOffsets;
+			rawCode = null;
+			rawOffsets = null;
+			try {
+				decodeCode(bytes, offsets);
+			} catch (IOException e) {
+				throw new IllegalStateException(e.toString());
+			}
+		}
+	}
+
+	private void decodeCode(byte[] bytes, int[] offsets) throws IOException {
+		int count = offsets.length - 1;
+		int[] indices = new int[bytes.length + 1];
+		for (int i = indices.length - 2; i > 0; i--) {
+			indices[i] = -1;
+		}
+		for (int i = 0; i < count; i++) {
+			indices[offsets[i]] = i;
+		}
+		indices[bytes.length] = count;
+		ClassInputBuffer in = new ClassInputBuffer(bytes, bytes.length);
+		opCodes.setSize(count);
+		try {
+			for (int i = 0; i < count; i++) {
+				OpByteCode.decodeTo(opCodes, i, in, offsets[i], indices);
+			}
+		} catch (EOFException e) {
+			throw new BadClassFileException();
+		}
 	}
 
-	private void incLabelIndicesInner(int startIndex, int incValue) {
-		incLabelIndicesForArray(opByteCodes, startIndex, incValue);
-		incLabelIndicesForArray(exceptions, startIndex, incValue);
-		incLabelIndicesForArray(attributes, startIndex, incValue);
+	private void commitEdits() {
+		if (editLog.hasUncommittedShifts()) {
+			editLog.beginCommit();
+			OpByteCode.bindLabels(opCodes);
+			bindLabelsForArray(exceptions, editLog);
+			bindLabelsForArray(attributes, editLog);
+			editLog.commit(opCodes);
+		}
 	}
 
 	private void rebuildLabelsPcInner(int[] offsets) {
-		rebuildLabelsPcForArray(opByteCodes, offsets);
+		OpByteCode.rebuildLabelsPc(opCodes, offsets);
 		rebuildLabelsPcForArray(exceptions, offsets);
 		rebuildLabelsPcForArray(attributes, offsets);
 	}
 
 	private int[] evalCodeOffsets() {
-		int count = opByteCodes.size();
+		int count = opCodes.size();
 		int[] offsets = new int[count + 1];
 		int curPc = 0;
 		for (int i = 0; i < count; i++) {
 			offsets[i] = curPc;
-			curPc += ((OpByteCode) opByteCodes.elementAt(i)).getLength(curPc);
+			curPc += OpByteCode.getLength(opCodes, i, curPc);
 		}
 		offsets[count] = curPc;
 		return offsets;
 	}
 
-	private void writeCodeTo(OutputStream out) throws IOException {
-		int count = opByteCodes.size();
-		ByteArrayOutputStream baos = new ByteArrayOutputStream((count << 1)
-				+ (count >> 2) + 16);
-		for (int i = 0; i < count; i++) {
-			int curPc = baos.size();
-			((OpByteCode) opByteCodes.elementAt(i)).writeRelTo(baos, curPc);
-		}
-		int codeLen = baos.size();
+	private void writeCodeTo(ClassOutputBuffer out, int[] offsets)
+			throws IOException {
+		int count = opCodes.size();
+		int codeLen = offsets[count];
 		if (((codeLen - 1) & ~0xffff) != 0)
 			throw new ClassOverflowException();
 		writeInt(out, codeLen);
-		baos.writeTo(out);
+		for (int i = 0; i < count; i++) {
+			OpByteCode.writeRelTo(out, opCodes, i, offsets);
+		}
 	}
 
-	void writeTo(OutputStream out) throws IOException {
-		rebuildLabelsPcInner(evalCodeOffsets());
+	void writeTo(ClassOutputBuffer out) throws IOException {
+		commitEdits();
+		int[] offsets = rawCode != null ? rawOffsets : evalCodeOffsets();
+		rebuildLabelsPcInner(offsets);
 		writeCheckedUShort(out, maxStack);
 		writeCheckedUShort(out, maxLocals);
-		writeCodeTo(out);
+		if (rawCode != null) {
+			writeInt(out, rawCode.length);
+			out.write(rawCode);
+		} else {
+			writeCodeTo(out, offsets);
+		}
 		writeToForArray(exceptions, out);
 		writeToForArray(attributes, out);
 	}
@@ -204,8 +281,10 @@ final class AttrCodeContent extends AttrContent {
 
 	void addCatch(int startIndex, int endIndex, int handlerIndex,
 			ConstantRef catchType) {
-		exceptions.addElement(new ExceptionCatch(startIndex, endIndex,
-				handlerIndex, catchType));
+		ExceptionCatch excCatch = new ExceptionCatch(startIndex, endIndex,
+				handlerIndex, catchType);
+		excCatch.bindLabels(editLog);
+		exceptions.addElement(excCatch);
 	}
 
 	void removeCatch(int i) {
@@ -221,90 +300,130 @@ final class AttrCodeContent extends AttrContent {
 	}
 
 	int getOpCodesCount() {
-		return opByteCodes.size();
+		return rawCode != null ? rawOffsets.length - 1 : opCodes.size();
+	}
+
+	private int getOpAt(int index) {
+		decodeRawCode();
+		return opCodes.getOp(index);
+	}
+
+	private int getConstOpAt(int index) {
+		if (rawCode == null)
+			return getOpAt(index);
+		if (index < 0 || rawOffsets.length - 1 <= index)
+			return 0;
+		return rawCode[rawOffsets[index]] & 0xff;
 	}
 
-	private OpByteCode getOpCodeAt(int index) {
-		return index >= 0 && opByteCodes.size() > index ? (OpByteCode) opByteCodes
-				.elementAt(index) : DUMMY_OPCODE;
+	private void setOpCodeAt(int index, int op, int arg) {
+		decodeRawCode();
+		opCodes.set(index, op, arg, 0);
+		updateIndicesAt(index);
+	}
+
+	private void setJumpAt(int index, int op, int targetIndex) {
+		decodeRawCode();
+		opCodes.setJump(index, op, targetIndex);
+		updateIndicesAt(index);
+	}
+
+	private void updateIndicesAt(int index) {
+		kindIndex.set(index, OpByteCode.getKind(opCodes.getOp(index)));
+		if (branchIndex != null) {
+			branchIndex.addOpCodeAt(index);
+		}
 	}
 
 	boolean isAthrowAt(int index) {
-		return getOpCodeAt(index).isAthrow();
+		return OpCodeSimple.isAthrow(getOpAt(index));
 	}
 
 	boolean isInvokeMethodAt(int index) {
-		return getOpCodeAt(index).isInvokeMethod();
+		return OpCodeConst.isInvokeMethod(getOpAt(index));
 	}
 
 	boolean isMonitorexitAt(int index) {
-		return getOpCodeAt(index).isMonitorexit();
+		return OpCodeSimple.isMonitorexit(getOpAt(index));
 	}
 
 	boolean isTargetInRangeAt(int index, int startIndex, int endIndex) {
-		return getOpCodeAt(index).isTargetInRange(startIndex, endIndex);
+		decodeRawCode();
+		return OpByteCode.isTargetInRange(opCodes, index, startIndex,
+				endIndex);
 	}
 
 	boolean isRetAt(int index, int varInd) {
-		OpByteCode opCode = getOpCodeAt(index);
-		return opCode.isRetXLoad(true) && opCode.getVarIndex() == varInd;
+		return OpCodeVar.isRetXLoad(getOpAt(index), true)
+				&& opCodes.getArg(index) == varInd;
 	}
 
 	boolean isXConstZeroAt(int index) {
-		return getOpCodeAt(index).isXConstZero();
+		int op = getOpAt(index);
+		return OpCodeSimple.isXConstZero(op)
+				|| OpCodeConst.isXConstZero(op, opCodes.getArg(index));
 	}
 
 	boolean isXLoadAt(int index) {
-		return getOpCodeAt(index).isRetXLoad(false);
+		return OpCodeVar.isRetXLoad(getOpAt(index), false);
 	}
 
 	boolean isXReturnAt(int index) {
-		return getOpCodeAt(index).isXReturn();
+		return OpCodeSimple.isXReturn(getOpAt(index));
 	}
 
 	int getAstoreAloadVarAt(int index, boolean isStore) {
-		OpByteCode opCode = getOpCodeAt(index);
-		return opCode.isAstoreAload(isStore) ? opCode.getVarIndex() : -1;
+		return OpCodeVar.isAstoreAload(getOpAt(index), isStore) ? opCodes
+				.getArg(index) : -1;
 	}
 
 	int getJsrGotoTargetIndexAt(int index, boolean isJsr) {
-		OpByteCode opCode = getOpCodeAt(index);
-		return opCode.isJsrGoto(isJsr) ? opCode.getTargetLabel().getIndex()
-				: -1;
+		return OpCodeJump.isJsrGoto(getOpAt(index), isJsr) ? opCodes
+				.getTargetIndex(index) : -1;
 	}
 
 	ConstantRef getInvokevirtualRefAt(int index) {
-		OpByteCode opCode = getOpCodeAt(index);
-		return opCode.isInvokevirtual() ? opCode.getConstRef() : null;
+		int op = getConstOpAt(index);
+		return OpCodeConst.isInvokevirtual(op) ? getConstRefAt(index) : null;
 	}
 
 	ConstantRef getPutfieldRefAt(int index) {
-		OpByteCode opCode = getOpCodeAt(index);
-		return opCode.isPutfield() ? opCode.getConstRef() : null;
+		int op = getConstOpAt(index);
+		return OpCodeConst.isPutfield(op) ? getConstRefAt(index) : null;
 	}
 
 	ConstantRef getPutGetstaticRefAt(int index, boolean isPut) {
-		OpByteCode opCode = getOpCodeAt(index);
-		return opCode.isPutGetstatic(isPut) ? opCode.getConstRef() : null;
+		int op = getConstOpAt(index);
+		return OpCodeConst.isPutGetstatic(op, isPut) ? getConstRefAt(index)
+				: null;
 	}
 
 	ConstantRef getConstRefAt(int index) {
-		return getOpCodeAt(index).getConstRef();
+		int poolIndex;
+		if (rawCode != null) {
+			poolIndex = index >= 0 && rawOffsets.length - 1 > index ? OpCodeConst
+					.getRawPoolIndex(rawCode, rawOffsets[index])
+					: 0;
+		} else {
+			poolIndex = index >= 0 && opCodes.size() > index ? OpCodeConst
+					.getPoolIndex(opCodes, index) : 0;
+		}
+		return poolIndex != 0 ? new ConstantRef(poolIndex, classFile) : null;
+	}
+
+	boolean hasOpCodeKind(int kind) {
+		return kindIndex.nextIndexOf(kind, 0) >= 0;
 	}
 
 	int findCheckcast(int startIndex) {
-		while (opByteCodes.size() > startIndex) {
-			if (((OpByteCode) opByteCodes.elementAt(startIndex)).isCheckcast())
-				return startIndex;
-			startIndex++;
-		}
-		return -1;
+		return kindIndex.nextIndexOf(OpCodeKindIndex.CHECKCAST, startIndex);
 	}
 
 	int findLdcClass(int startIndex, int endIndex) {
-		while (startIndex < endIndex) {
-			OpByteCode opCode = (OpByteCode) opByteCodes.elementAt(startIndex);
-			if (opCode.isLdc() && opCode.getConstRef().isClassConst())
+		while ((startIndex = kindIndex.nextIndexOf(OpCodeKindIndex.LDC,
+				startIndex)) >= 0
+				&& startIndex < endIndex) {
+			if (getConstRefAt(startIndex).isClassConst())
 				return startIndex;
 			startIndex++;
 		}
@@ -312,30 +431,19 @@ final class AttrCodeContent extends AttrContent {
 	}
 
 	int findInvokestaticSpecial(int startIndex, boolean isStatic) {
-		while (opByteCodes.size() > startIndex) {
-			if (((OpByteCode) opByteCodes.elementAt(startIndex))
-					.isInvokestaticSpecial(isStatic))
-				return startIndex;
-			startIndex++;
-		}
-		return -1;
+		return kindIndex.nextIndexOf(isStatic ? OpCodeKindIndex.INVOKESTATIC
+				: OpCodeKindIndex.INVOKESPECIAL, startIndex);
 	}
 
 	int findPutGetstatic(int startIndex) {
-		while (opByteCodes.size() > startIndex) {
-			OpByteCode opCode = (OpByteCode) opByteCodes.elementAt(startIndex);
-			if (opCode.isPutGetstatic(true) || opCode.isPutGetstatic(false))
-				return startIndex;
-			startIndex++;
-		}
-		return -1;
+		return kindIndex.nextIndexOf(OpCodeKindIndex.PUTGETSTATIC, startIndex);
 	}
 
 	int findRetAload(int startIndex, int varInd, boolean isRet) {
-		while (opByteCodes.size() > startIndex) {
-			OpByteCode opCode = (OpByteCode) opByteCodes.elementAt(startIndex);
-			if ((isRet ? opCode.isRetXLoad(true) : opCode.isAstoreAload(false))
-					&& opCode.getVarIndex() == varInd)
+		decodeRawCode();
+		int kind = isRet ? OpCodeKindIndex.RET : OpCodeKindIndex.ALOAD;
+		while ((startIndex = kindIndex.nextIndexOf(kind, startIndex)) >= 0) {
+			if (opCodes.getArg(startIndex) == varInd)
 				return startIndex;
 			startIndex++;
 		}
@@ -344,16 +452,16 @@ final class AttrCodeContent extends AttrContent {
 
 	boolean isSameCodeRegions(int startIndex, int startIndex2, int endIndex2,
 			int argSlots, int[] indexRef) {
+		decodeRawCode();
 		int deltaIndex = startIndex2 - startIndex;
-		if (startIndex < 0 || deltaIndex < 0 || opByteCodes.size() < endIndex2)
+		if (startIndex < 0 || deltaIndex < 0 || opCodes.size() < endIndex2)
 			return false;
 		int[] deltaVarRef = new int[1];
-		Hashtable diffVarsSet = new Hashtable();
+		ObjHashtable diffVarsSet = new ObjHashtable();
 		for (int i = startIndex2; i < endIndex2; i++) {
-			if (!((OpByteCode) opByteCodes.elementAt(i - deltaIndex))
-					.isEqualTo((OpByteCode) opByteCodes.elementAt(i),
-							startIndex, deltaIndex, endIndex2, indexRef,
-							deltaVarRef, argSlots, diffVarsSet))
+			if (!OpByteCode.isEqualTo(opCodes, i - deltaIndex, i, startIndex,
+					deltaIndex, endIndex2, indexRef, deltaVarRef, argSlots,
+					diffVarsSet))
 				return false;
 		}
 		if (deltaVarRef[0] < 0)
@@ -371,12 +479,13 @@ final class AttrCodeContent extends AttrContent {
 	}
 
 	private boolean isNewBranchAt(int index) {
-		return index == 0 || getOpCodeAt(index - 1).isUncondBranch();
+		return index == 0 || OpByteCode.isUncondBranch(getOpAt(index - 1));
 	}
 
 	boolean hasBranchesOutsideIntoCode(int startIndex, int count) {
+		decodeRawCode();
 		int endIndex = startIndex + count;
-		if (count > 0 && opByteCodes.size() >= endIndex) {
+		if (count > 0 && opCodes.size() >= endIndex) {
 			int exceptionsCount = exceptions.size();
 			for (int i = 0; i < exceptionsCount; i++) {
 				ExceptionCatch excCatch = (ExceptionCatch) exceptions
@@ -386,52 +495,51 @@ final class AttrCodeContent extends AttrContent {
 								.end().getIndex() > endIndex))
 					return true;
 			}
-			int i = opByteCodes.size();
-			do {
-				if (i == endIndex) {
-					i = startIndex - 1;
-				}
-				if (--i < 0)
-					break;
-				if (((OpByteCode) opByteCodes.elementAt(i)).isTargetInRange(
-						startIndex, endIndex))
-					return true;
-			} while (true);
+			if (branchIndex == null || branchIndex.isOutdated()) {
+				branchIndex = new BranchTargetIndex(opCodes, editLog);
+			}
+			return branchIndex.hasBranchesInto(startIndex, endIndex);
 		}
 		return false;
 	}
 
 	void removeCodeAt(int startIndex, int count) {
 		if (count != 0) {
+			decodeRawCode();
 			int endIndex = startIndex + count;
 			if (count > 0) {
 				removeLabelsInRangeForArray(exceptions, startIndex, endIndex);
 				removeLabelsInRangeForArray(attributes, startIndex != 0
-						|| opByteCodes.size() == endIndex ? startIndex : 1,
+						|| opCodes.size() == endIndex ? startIndex : 1,
 						endIndex);
-				incLabelIndicesInner(endIndex, -count);
-				do {
-					opByteCodes.removeElementAt(--endIndex);
-				} while (startIndex < endIndex);
+				if (branchIndex != null) {
+					branchIndex.removeCodeAt(startIndex, endIndex);
+				} else {
+					editLog.addShift(endIndex, -count);
+				}
+				kindIndex.removeAt(startIndex, count);
+				opCodes.removeAt(startIndex, count);
 			} else {
-				incLabelIndicesInner(endIndex + 1, -count);
+				editLog.addShift(endIndex + 1, -count);
 				insCodeNopsInner(endIndex, -count);
+				if (branchIndex != null) {
+					branchIndex.addOpCodeAt(startIndex);
+				}
 			}
 		}
 	}
 
 	void insertCodeNopsAt(int startIndex, int count) {
 		if (count > 0) {
-			incLabelIndicesInner(startIndex, count);
+			decodeRawCode();
+			editLog.addShift(startIndex, count);
 			insCodeNopsInner(startIndex, count);
 		}
 	}
 
 	private void insCodeNopsInner(int startIndex, int count) {
-		do {
-			opByteCodes.insertElementAt(new OpCodeSimple(0), startIndex);
-			startIndex++;
-		} while (--count > 0);
+		kindIndex.insertAt(startIndex, count);
+		opCodes.insertNopsAt(startIndex, count);
 	}
 
 	void moveCodeBlockAt(int startIndex, int count, int destIndex) {
@@ -440,75 +548,74 @@ final class AttrCodeContent extends AttrContent {
 			startIndex += count;
 		}
 		for (int i = 0; i < count; i++) {
-			opByteCodes.setElementAt(opByteCodes.elementAt(startIndex + i),
-					destIndex + i);
+			opCodes.copy(startIndex + i, destIndex + i);
+			updateIndicesAt(destIndex + i);
 		}
 		removeCodeAt(startIndex, count);
 	}
 
 	void putAreturnAt(int index) {
-		opByteCodes.setElementAt(OpCodeSimple.makeAreturn(), index);
+		setOpCodeAt(index, OpCodeSimple.makeAreturn(), 0);
 	}
 
 	void putAthrowAt(int index) {
-		opByteCodes.setElementAt(OpCodeSimple.makeAthrow(), index);
+		setOpCodeAt(index, OpCodeSimple.makeAthrow(), 0);
 	}
 
 	void putDupAt(int index) {
-		opByteCodes.setElementAt(OpCodeSimple.makeDup(), index);
+		setOpCodeAt(index, OpCodeSimple.makeDup(), 0);
 	}
 
 	void putIconstZeroAt(int index) {
-		opByteCodes.setElementAt(OpCodeSimple.makeIconstZero(), index);
+		setOpCodeAt(index, OpCodeSimple.makeIconstZero(), 0);
 	}
 
 	void putMonitorexitAt(int index) {
-		opByteCodes.setElementAt(OpCodeSimple.makeMonitorexit(), index);
+		setOpCodeAt(index, OpCodeSimple.makeMonitorexit(), 0);
 	}
 
 	void putIfnonnullAt(int index, int targetIndex) {
-		opByteCodes.setElementAt(OpCodeJump.makeIfnonnull(targetIndex), index);
+		setJumpAt(index, OpCodeJump.makeIfnonnull(), targetIndex);
 	}
 
 	void putJsrGotoAt(int index, int targetIndex, boolean isJsr) {
-		opByteCodes.setElementAt(OpCodeJump.makeJsrGoto(targetIndex, isJsr),
-				index);
+		setJumpAt(index, OpCodeJump.makeJsrGoto(isJsr), targetIndex);
 	}
 
 	void putAstoreAloadAt(int index, int varInd, boolean isStore) {
-		opByteCodes.setElementAt(OpCodeVar.makeAstoreAload(varInd, isStore),
-				index);
+		setOpCodeAt(index, OpCodeVar.makeAstoreAload(varInd, isStore), varInd);
 	}
 
 	void putRetAt(int index, int varInd) {
-		opByteCodes.setElementAt(OpCodeVar.makeRet(varInd), index);
+		setOpCodeAt(index, OpCodeVar.makeRet(varInd), varInd);
 	}
 
 	void putInvokestaticAt(int index, ConstantRef method) {
-		opByteCodes.setElementAt(OpCodeConst.makeInvokestatic(method), index);
+		setOpCodeAt(index, OpCodeConst.makeInvokestatic(), method.getIndex());
 	}
 
 	void putInvokevirtualSpecialAt(int index, ConstantRef classConst,
 			String nameValue, String descriptorValue, boolean isVirtual,
 			ClassFile classFile) {
-		opByteCodes.setElementAt(OpCodeConst.makeInvokevirtualSpecial(classFile
-				.addNormMethodConst(classConst, nameValue, descriptorValue),
-				isVirtual), index);
+		setOpCodeAt(index, OpCodeConst.makeInvokevirtualSpecial(isVirtual),
+				classFile.addNormMethodConst(classConst, nameValue,
+						descriptorValue).getIndex());
 	}
 
 	void putLdcClassStringAt(int index, String value, boolean isClass,
 			ClassFile classFile) {
-		opByteCodes.setElementAt(OpCodeConst.makeLdc(classFile
-				.addClassStringConst(value, isClass)), index);
+		ConstantRef poolConst = classFile.addClassStringConst(value, isClass);
+		setOpCodeAt(index, OpCodeConst.makeLdc(poolConst), poolConst
+				.getIndex());
 	}
 
 	void putNewCheckcastAt(int index, ConstantRef classConst, boolean isNew) {
-		opByteCodes.setElementAt(
-				OpCodeConst.makeNewCheckcast(classConst, isNew), index);
+		setOpCodeAt(index, OpCodeConst.makeNewCheckcast(isNew), classConst
+				.getIndex());
 	}
 
 	void putPutGetstaticAt(int index, ConstantRef field, boolean isPut) {
-		opByteCodes.setElementAt(OpCodeConst.makePutGetstatic(field, isPut),
-				index);
+		setOpCodeAt(index, OpCodeConst.makePutGetstatic(isPut), field
+				.getIndex());
 	}
 }
@@ -38,18 +38,15 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Vector;
 
 final class AttrInnerClassContent extends AttrContent {
 
-	private/* final */Vector innerClasses;
+	private/* final */ObjVector innerClasses;
 
-	AttrInnerClassContent(InputStream in, ClassFile classFile)
+	AttrInnerClassContent(ClassInputBuffer in, ClassFile classFile)
 			throws IOException {
 		int count = readUnsignedShort(in);
-		innerClasses = new Vector(count);
+		innerClasses = new ObjVector(count);
 		while (count-- > 0) {
 			innerClasses.addElement(new InnerClassDesc(in, classFile));
 		}
@@ -59,7 +56,7 @@ final class AttrInnerClassContent extends AttrContent {
 		return "InnerClasses";
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		writeToForArray(innerClasses, out);
 	}
 
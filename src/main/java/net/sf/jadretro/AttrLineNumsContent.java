@@ -38,17 +38,14 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Vector;
 
 final class AttrLineNumsContent extends AttrContent {
 
-	private/* final */Vector lineNumbers;
+	private/* final */ObjVector lineNumbers;
 
-	AttrLineNumsContent(InputStream in) throws IOException {
+	AttrLineNumsContent(ClassInputBuffer in) throws IOException {
 		int count = readUnsignedShort(in);
-		lineNumbers = new Vector(count);
+		lineNumbers = new ObjVector(count);
 		while (count-- > 0) {
 			lineNumbers.addElement(new LineNumberDesc(in));
 		}
@@ -66,15 +63,15 @@ final class AttrLineNumsContent extends AttrContent {
 		return removeLabelsInRangeForArray(lineNumbers, startIndex, endIndex);
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
-		incLabelIndicesForArray(lineNumbers, startIndex, incValue);
+	void bindLabels(CodeEditLog editLog) {
+		bindLabelsForArray(lineNumbers, editLog);
 	}
 
 	void rebuildLabelsPc(int[] offsets) {
 		rebuildLabelsPcForArray(lineNumbers, offsets);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		writeToForArray(lineNumbers, out);
 	}
 }
@@ -38,18 +38,15 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Vector;
 
 final class AttrLocalVarsContent extends AttrContent {
 
-	private/* final */Vector localVariables;
+	private/* final */ObjVector localVariables;
 
-	AttrLocalVarsContent(InputStream in, ClassFile classFile)
+	AttrLocalVarsContent(ClassInputBuffer in, ClassFile classFile)
 			throws IOException {
 		int count = readUnsignedShort(in);
-		localVariables = new Vector(count);
+		localVariables = new ObjVector(count);
 		while (count-- > 0) {
 			localVariables.addElement(new LocalVariableDesc(in, classFile));
 		}
@@ -67,15 +64,15 @@ final class AttrLocalVarsContent extends AttrContent {
 		return removeLabelsInRangeForArray(localVariables, startIndex, endIndex);
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
-		incLabelIndicesForArray(localVariables, startIndex, incValue);
+	void bindLabels(CodeEditLog editLog) {
+		bindLabelsForArray(localVariables, editLog);
 	}
 
 	void rebuildLabelsPc(int[] offsets) {
 		rebuildLabelsPcForArray(localVariables, offsets);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		writeToForArray(localVariables, out);
 	}
 
@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class AttrRawContent extends AttrContent {
 
@@ -49,7 +47,7 @@ final class AttrRawContent extends AttrContent {
 		bytes = new byte[0];
 	}
 
-	AttrRawContent(InputStream in, int len) throws IOException {
+	AttrRawContent(ClassInputBuffer in, int len) throws IOException {
 		bytes = new byte[len];
 		readFully(in, bytes);
 	}
@@ -62,7 +60,7 @@ final class AttrRawContent extends AttrContent {
 		return "Synthetic";
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		out.write(bytes);
 	}
 }
@@ -37,12 +37,8 @@
 
 package net.sf.jadretro;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class AttributeEntry extends ClassLabeledEntity {
 
@@ -55,24 +51,24 @@ final class AttributeEntry extends ClassLabeledEntity {
 		this.content = content;
 	}
 
-	AttributeEntry(InputStream in, ClassFile classFile) throws IOException {
+	AttributeEntry(ClassInputBuffer in, ClassFile classFile)
+			throws IOException {
 		name = new ConstantRef(in, classFile, false);
 		int len = readInt(in);
 		if (len < 0)
 			throw new BadClassFileException();
-		byte[] bytes = new byte[len];
-		readFully(in, bytes);
-		ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
+		int oldLimit = in.pushLimit(len);
 		try {
-			content = decodeContent(bais, len, name, classFile);
+			content = decodeContent(in, len, name, classFile);
 		} catch (EOFException e) {
 			throw new BadClassFileException();
 		}
-		if (bais.read() >= 0)
+		if (in.read() >= 0)
 			throw new BadClassFileException();
+		in.popLimit(oldLimit);
 	}
 
-	private static AttrContent decodeContent(InputStream in, int len,
+	private static AttrContent decodeContent(ClassInputBuffer in, int len,
 			ConstantRef name, ClassFile classFile) throws IOException {
 		String nameValue = name.utfValue();
 		if (AttrCodeContent.nameValue().equals(nameValue))
@@ -95,20 +91,20 @@ final class AttributeEntry extends ClassLabeledEntity {
 		return content.removeLabelsInRange(startIndex, endIndex);
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
-		content.incLabelIndices(startIndex, incValue);
+	void bindLabels(CodeEditLog editLog) {
+		content.bindLabels(editLog);
 	}
 
 	void rebuildLabelsPc(int[] offsets) {
 		content.rebuildLabelsPc(offsets);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		name.writeTo(out);
-		ByteArrayOutputStream baos = new ByteArrayOutputStream();
-		content.writeTo(baos);
-		writeInt(out, baos.size());
-		baos.writeTo(out);
+		int lenPos = out.size();
+		writeInt(out, 0);
+		content.writeTo(out);
+		out.putIntAt(lenPos, out.size() - lenPos - 4);
 	}
 
 	String getNameValue() throws BadClassFileException {
@@ -0,0 +1,195 @@
+/*
+ * @(#) net/sf/jadretro/BranchTargetIndex.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.util.Arrays;
+
+final class BranchTargetIndex {
+
+	private/* final */OpCodeArray opCodes;
+
+	private/* final */CodeEditLog editLog;
+
+	private CodeAbsLabel[] targets;
+
+	private CodeAbsLabel[] sources;
+
+	private int count;
+
+	private int changesCount;
+
+	BranchTargetIndex(OpCodeArray opCodes, CodeEditLog editLog) {
+		this.opCodes = opCodes;
+		this.editLog = editLog;
+		int opCodesCount = opCodes.size();
+		targets = new CodeAbsLabel[(opCodesCount >> 3) + 1];
+		sources = new CodeAbsLabel[targets.length];
+		for (int i = 0; i < opCodesCount; i++) {
+			OpByteCode.addBranchesTo(this, opCodes, i);
+		}
+		sortEntries();
+	}
+
+	private void sortEntries() {
+		long[] keys = new long[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = ((long) targets[i].getIndex() << 32) | i;
+		}
+		Arrays.sort(keys);
+		CodeAbsLabel[] newTargets = new CodeAbsLabel[targets.length];
+		CodeAbsLabel[] newSources = new CodeAbsLabel[targets.length];
+		for (int i = 0; i < count; i++) {
+			int j = (int) keys[i];
+			newTargets[i] = targets[j];
+			newSources[i] = sources[j];
+		}
+		targets = newTargets;
+		sources = newSources;
+	}
+
+	void addBranch(int targetIndex, int sourceIndex) {
+		CodeAbsLabel source;
+		if (count > 0 && sources[count - 1].getIndex() == sourceIndex) {
+			source = sources[count - 1];
+		} else {
+			source = new CodeAbsLabel();
+			source.bindLabels(editLog);
+			source.setNewIndex(sourceIndex);
+		}
+		CodeAbsLabel target = new CodeAbsLabel();
+		target.bindLabels(editLog);
+		target.setNewIndex(targetIndex);
+		if (count == targets.length) {
+			grow();
+		}
+		targets[count] = target;
+		sources[count++] = source;
+	}
+
+	private void grow() {
+		int len = targets.length << 1;
+		CodeAbsLabel[] newTargets = new CodeAbsLabel[len];
+		System.arraycopy(targets, 0, newTargets, 0, count);
+		targets = newTargets;
+		CodeAbsLabel[] newSources = new CodeAbsLabel[len];
+		System.arraycopy(sources, 0, newSources, 0, count);
+		sources = newSources;
+	}
+
+	void addOpCodeAt(int sourceIndex) {
+		int first = count;
+		OpByteCode.addBranchesTo(this, opCodes, sourceIndex);
+		changesCount++;
+		insertSorted(first);
+	}
+
+	void removeCodeAt(int startIndex, int endIndex) {
+		changesCount += endIndex - startIndex;
+		int lowPos = findFirst(startIndex + 1);
+		int highPos = findFirst(endIndex);
+		int movedCount = highPos - lowPos;
+		if (movedCount > 0) {
+			CodeAbsLabel[] movedTargets = new CodeAbsLabel[movedCount];
+			CodeAbsLabel[] movedSources = new CodeAbsLabel[movedCount];
+			System.arraycopy(targets, lowPos, movedTargets, 0, movedCount);
+			System.arraycopy(sources, lowPos, movedSources, 0, movedCount);
+			System.arraycopy(targets, highPos, targets, lowPos, count
+					- highPos);
+			System.arraycopy(sources, highPos, sources, lowPos, count
+					- highPos);
+			count -= movedCount;
+			editLog.addShift(endIndex, startIndex - endIndex);
+			System.arraycopy(movedTargets, 0, targets, count, movedCount);
+			System.arraycopy(movedSources, 0, sources, count, movedCount);
+			int first = count;
+			count += movedCount;
+			insertSorted(first);
+		} else {
+			editLog.addShift(endIndex, startIndex - endIndex);
+		}
+	}
+
+	private void insertSorted(int first) {
+		while (first < count) {
+			CodeAbsLabel target = targets[first];
+			CodeAbsLabel source = sources[first];
+			int pos = findFirst(target.getIndex(), first);
+			System.arraycopy(targets, pos, targets, pos + 1, first - pos);
+			System.arraycopy(sources, pos, sources, pos + 1, first - pos);
+			targets[pos] = target;
+			sources[pos] = source;
+			first++;
+		}
+	}
+
+	private int findFirst(int targetIndex) {
+		return findFirst(targetIndex, count);
+	}
+
+	private int findFirst(int targetIndex, int limit) {
+		int low = 0;
+		int high = limit;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (targets[mid].getIndex() < targetIndex) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	boolean isOutdated() {
+		return changesCount > (opCodes.size() >> 2) + 0x10;
+	}
+
+	boolean hasBranchesInto(int startIndex, int endIndex) {
+		for (int i = findFirst(startIndex); i < count; i++) {
+			int targetIndex = targets[i].getIndex();
+			if (targetIndex >= endIndex)
+				break;
+			int sourceIndex = sources[i].getIndex();
+			if ((sourceIndex < startIndex - 1 || sourceIndex >= endIndex)
+					&& OpByteCode.isTargetInRange(opCodes, sourceIndex,
+							targetIndex, targetIndex + 1))
+				return true;
+		}
+		return false;
+	}
+}
@@ -39,69 +39,63 @@ package net.sf.jadretro;
 
 import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Vector;
 
 abstract class ClassEntity {
 
-	static Vector readAttributes(InputStream in, ClassFile classFile)
+	static ObjVector readAttributes(ClassInputBuffer in, ClassFile classFile)
 			throws IOException {
 		int count = readUnsignedShort(in);
-		Vector attributes = new Vector(count);
+		ObjVector attributes = new ObjVector(count);
 		while (count-- > 0) {
 			attributes.addElement(new AttributeEntry(in, classFile));
 		}
 		return attributes;
 	}
 
-	static void readFully(InputStream in, byte[] bytes) throws IOException {
-		int ofs = 0;
-		int len = bytes.length;
-		while (ofs < len) {
-			int res = in.read(bytes, ofs, len - ofs);
-			if (res < 0)
-				throw new EOFException();
-			ofs += res;
-		}
+	static void readFully(ClassInputBuffer in, byte[] bytes)
+			throws IOException {
+		in.readFully(bytes);
 	}
 
-	static byte readByte(InputStream in) throws IOException {
-		return ((byte) readUnsignedByte(in));
+	static byte readByte(ClassInputBuffer in) throws IOException {
+		return ((byte) in.readUnsignedByte());
 	}
 
-	static int readUnsignedByte(InputStream in) throws IOException {
-		int c1 = in.read();
-		if (c1 < 0)
-			throw new EOFException();
-		return c1;
+	static int readUnsignedByte(ClassInputBuffer in) throws IOException {
+		return in.readUnsignedByte();
 	}
 
-	static short readShort(InputStream in) throws IOException {
-		return ((short) readUnsignedShort(in));
+	static short readShort(ClassInputBuffer in) throws IOException {
+		return ((short) in.readUnsignedShort());
 	}
 
-	static int readUnsignedShort(InputStream in) throws IOException {
-		int c1 = in.read();
-		int c2 = in.read();
-		if (c2 < 0)
-			throw new EOFException();
-		return (c1 << 8) | c2;
+	static int readUnsignedShort(ClassInputBuffer in) throws IOException {
+		return in.readUnsignedShort();
+	}
+
+	static int readInt(ClassInputBuffer in) throws IOException {
+		return in.readInt();
 	}
 
-	static int readInt(InputStream in) throws IOException {
-		int c1 = in.read();
-		int c2 = in.read();
-		int c3 = in.read();
-		int c4 = in.read();
-		if (c4 < 0)
+	static int getUnsignedByteAt(byte[] bytes, int pos) throws EOFException {
+		if (bytes.length <= pos)
 			throw new EOFException();
-		return (((((c1 << 8) | c2) << 8) | c3) << 8) | c4;
+		return bytes[pos] & 0xff;
 	}
 
-	abstract void writeTo(OutputStream out) throws IOException;
+	static int getUnsignedShortAt(byte[] bytes, int pos) throws EOFException {
+		return (getUnsignedByteAt(bytes, pos) << 8)
+				| getUnsignedByteAt(bytes, pos + 1);
+	}
+
+	static int getIntAt(byte[] bytes, int pos) throws EOFException {
+		return (getUnsignedShortAt(bytes, pos) << 16)
+				| getUnsignedShortAt(bytes, pos + 2);
+	}
 
-	static void writeToForArray(Vector entries, OutputStream out)
+	abstract void writeTo(ClassOutputBuffer out) throws IOException;
+
+	static void writeToForArray(ObjVector entries, ClassOutputBuffer out)
 			throws IOException {
 		int count = entries.size();
 		writeCheckedUShort(out, count);
@@ -110,22 +104,20 @@ abstract class ClassEntity {
 		}
 	}
 
-	static void writeCheckedUShort(OutputStream out, int value)
+	static void writeCheckedUShort(ClassOutputBuffer out, int value)
 			throws IOException {
 		if ((value & ~0xffff) != 0)
 			throw new ClassOverflowException();
 		writeShort(out, value);
 	}
 
-	static void writeShort(OutputStream out, int value) throws IOException {
-		out.write(value >> 8);
-		out.write(value);
+	static void writeShort(ClassOutputBuffer out, int value)
+			throws IOException {
+		out.writeShort(value);
 	}
 
-	static void writeInt(OutputStream out, int value) throws IOException {
-		out.write(value >> 24);
-		out.write(value >> 16);
-		out.write(value >> 8);
-		out.write(value);
+	static void writeInt(ClassOutputBuffer out, int value)
+			throws IOException {
+		out.writeInt(value);
 	}
 }
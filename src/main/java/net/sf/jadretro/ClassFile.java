@@ -38,14 +38,11 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.UTFDataFormatException;
-import java.util.Vector;
 
 final class ClassFile extends ClassEntity {
 
-	private static final int MAGIC_VALUE = 0xcafebabe;
+	static final int MAGIC_VALUE = 0xcafebabe;
 
 	private static final int MAJOR_VER_BASE = 45;
 
@@ -55,7 +52,19 @@ final class ClassFile extends ClassEntity {
 
 	private int majorVer;
 
-	private/* final */Vector constants;
+	private/* final */ObjVector constants;
+
+	private ObjHashtable constantIndex;
+
+	private boolean hasDupConstants;
+
+	private/* final */byte[] rawConstants;
+
+	private/* final */int[] rawConstOffsets;
+
+	private boolean[] changedConstants;
+
+	private DescriptorInfo[] descriptorInfos;
 
 	private/* final */AccessFlags accessFlags;
 
@@ -63,46 +72,54 @@ final class ClassFile extends ClassEntity {
 
 	private/* final */ConstantRef superClass;
 
-	private/* final */Vector interfaces;
+	private/* final */ObjVector interfaces;
 
-	private/* final */Vector fields;
+	private/* final */ObjVector fields;
 
-	private/* final */Vector methods;
+	private/* final */ObjVector methods;
 
-	private/* final */Vector attributes;
+	private/* final */ObjVector attributes;
 
-	ClassFile(InputStream in) throws IOException {
+	ClassFile(byte[] bytes, int len) throws IOException {
+		ClassInputBuffer in = new ClassInputBuffer(bytes, len);
 		if (readInt(in) != MAGIC_VALUE)
 			throw new BadClassFileException();
 		minorVer = readUnsignedShort(in);
 		majorVer = readUnsignedShort(in);
-		if (majorVer < MAJOR_VER_BASE || getJavaVer() > 0x40
-				|| (majorVer == MAJOR_VER_BASE && minorVer < MINOR_VER_MIN))
+		if (!isSupportedVer(majorVer, minorVer))
 			throw new BadClassFileException();
 		int constPoolSize = readUnsignedShort(in);
 		if (constPoolSize == 0)
 			throw new BadClassFileException();
-		constants = new Vector(constPoolSize);
+		constants = new ObjVector(constPoolSize);
 		constants.setSize(constPoolSize);
 		constants.setElementAt(ConstantPoolEntry.EMPTY_ENTRY, 0);
+		int rawStart = in.position();
+		int[] offsets = new int[constPoolSize + 1];
 		try {
 			for (int i = 1; i < constPoolSize; i++) {
+				offsets[i] = in.position() - rawStart;
 				ConstantPoolEntry entry = new ConstantPoolEntry(in, this);
 				constants.setElementAt(entry, i);
 				if (entry.isLongOrDouble()) {
 					if (++i == constPoolSize)
 						throw new BadClassFileException();
+					offsets[i] = in.position() - rawStart;
 					constants.setElementAt(ConstantPoolEntry.EMPTY_ENTRY, i);
 				}
 			}
 		} catch (UTFDataFormatException e) {
 			throw new BadClassFileException();
 		}
+		offsets[constPoolSize] = in.position() - rawStart;
+		rawConstants = new byte[offsets[constPoolSize]];
+		System.arraycopy(bytes, rawStart, rawConstants, 0, rawConstants.length);
+		rawConstOffsets = offsets;
 		accessFlags = new AccessFlags(in);
 		thisClass = new ConstantRef(in, this, false);
 		superClass = new ConstantRef(in, this, true);
 		int interfacesCount = readUnsignedShort(in);
-		interfaces = new Vector(interfacesCount);
+		interfaces = new ObjVector(interfacesCount);
 		while (interfacesCount-- > 0) {
 			interfaces.addElement(new ConstantRef(in, this, false));
 		}
@@ -113,29 +130,37 @@ final class ClassFile extends ClassEntity {
 			throw new BadClassFileException();
 	}
 
-	private static Vector readFieldsOrMethods(InputStream in,
+	private static ObjVector readFieldsOrMethods(ClassInputBuffer in,
 			ClassFile classFile) throws IOException {
 		int count = readUnsignedShort(in);
-		Vector entries = new Vector(count);
+		ObjVector entries = new ObjVector(count);
 		while (count-- > 0) {
 			entries.addElement(new FieldMethodEntry(in, classFile));
 		}
 		return entries;
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		writeInt(out, MAGIC_VALUE);
 		writeShort(out, minorVer);
 		writeShort(out, majorVer);
 		int constPoolSize = constants.size();
 		writeCheckedUShort(out, constPoolSize);
+		int rawCount = rawConstOffsets.length - 1;
 		try {
-			for (int i = 1; i < constPoolSize; i++) {
-				ConstantPoolEntry entry = (ConstantPoolEntry) constants
-						.elementAt(i);
-				entry.writeTo(out);
-				if (entry.isLongOrDouble()) {
-					i++;
+			int i = 1;
+			while (i < constPoolSize) {
+				if (i < rawCount && !isConstantChangedAt(i)) {
+					int ofs = rawConstOffsets[i];
+					do {
+						i++;
+					} while (i < rawCount && !isConstantChangedAt(i));
+					out.write(rawConstants, ofs, rawConstOffsets[i] - ofs);
+				} else {
+					ConstantPoolEntry entry = (ConstantPoolEntry) constants
+							.elementAt(i);
+					entry.writeTo(out);
+					i += entry.isLongOrDouble() ? 2 : 1;
 				}
 			}
 		} catch (UTFDataFormatException e) {
@@ -150,11 +175,21 @@ final class ClassFile extends ClassEntity {
 		writeToForArray(attributes, out);
 	}
 
-	int getJavaVer() {
+	static boolean isSupportedVer(int majorVer, int minorVer) {
+		return majorVer >= MAJOR_VER_BASE
+				&& getJavaVer(majorVer, minorVer) <= 0x40
+				&& (majorVer != MAJOR_VER_BASE || minorVer >= MINOR_VER_MIN);
+	}
+
+	static int getJavaVer(int majorVer, int minorVer) {
 		return (minorVer > 0 && majorVer > MAJOR_VER_BASE ? 2 : 1) + majorVer
 				- MAJOR_VER_BASE;
 	}
 
+	int getJavaVer() {
+		return getJavaVer(majorVer, minorVer);
+	}
+
 	void setJavaVer(int version) {
 		if (version > 1) {
 			majorVer = version + MAJOR_VER_BASE - 1;
@@ -162,6 +197,10 @@ final class ClassFile extends ClassEntity {
 		}
 	}
 
+	AccessFlags accessFlags() {
+		return accessFlags;
+	}
+
 	String className() throws BadClassFileException {
 		return thisClass.classOrName().utfValue();
 	}
@@ -231,24 +270,96 @@ final class ClassFile extends ClassEntity {
 		return (ConstantPoolEntry) constants.elementAt(i);
 	}
 
+	DescriptorInfo getDescriptorInfoAt(int i) throws BadClassFileException {
+		if (descriptorInfos == null || descriptorInfos.length <= i) {
+			DescriptorInfo[] newInfos = new DescriptorInfo[constants.size()];
+			if (descriptorInfos != null) {
+				System.arraycopy(descriptorInfos, 0, newInfos, 0,
+						descriptorInfos.length);
+			}
+			descriptorInfos = newInfos;
+		}
+		DescriptorInfo info = descriptorInfos[i];
+		if (info == null) {
+			info = new DescriptorInfo(getConstantAt(i).content().utfValue());
+			descriptorInfos[i] = info;
+		}
+		return info;
+	}
+
 	void changeClassConstAt(int i, String value) {
-		constants.setElementAt(
-				ConstantPoolEntry.makeClassString(addUtfConst(value), true), i);
+		setConstantAt(i,
+				ConstantPoolEntry.makeClassString(addUtfConst(value), true));
 	}
 
 	void changeNameAndTypeConstAt(int i, String descriptorValue)
 			throws BadClassFileException {
-		constants.setElementAt(ConstantPoolEntry.makeNameAndType(
+		setConstantAt(i, ConstantPoolEntry.makeNameAndType(
 				((ConstantPoolEntry) constants.elementAt(i)).content()
-						.classOrName(), addUtfConst(descriptorValue)), i);
+						.classOrName(), addUtfConst(descriptorValue)));
+	}
+
+	private void setConstantAt(int i, ConstantPoolEntry entry) {
+		if (constantIndex != null) {
+			ConstantPoolEntry oldEntry = (ConstantPoolEntry) constants
+					.elementAt(i);
+			Integer oldIndex = (Integer) constantIndex.get(oldEntry);
+			if (oldIndex != null && oldIndex.intValue() == i) {
+				constantIndex.remove(oldEntry);
+				if (hasDupConstants) {
+					for (int index = i - 1; index > 0; index--) {
+						if (oldEntry.isEqualTo((ConstantPoolEntry) constants
+								.elementAt(index))) {
+							constantIndex.put(oldEntry, new Integer(index));
+							break;
+						}
+					}
+				}
+			}
+		}
+		constants.setElementAt(entry, i);
+		if (rawConstOffsets.length - 1 > i) {
+			if (changedConstants == null) {
+				changedConstants = new boolean[rawConstOffsets.length - 1];
+			}
+			changedConstants[i] = true;
+		}
+		if (constantIndex != null) {
+			indexConstantAt(i);
+		}
+	}
+
+	private boolean isConstantChangedAt(int i) {
+		return changedConstants != null && changedConstants[i];
+	}
+
+	private void indexConstantAt(int i) {
+		ConstantPoolEntry entry = (ConstantPoolEntry) constants.elementAt(i);
+		if (entry != ConstantPoolEntry.EMPTY_ENTRY) {
+			Integer oldIndex = (Integer) constantIndex.put(entry, new Integer(
+					i));
+			if (oldIndex != null) {
+				hasDupConstants = true;
+				if (oldIndex.intValue() > i) {
+					constantIndex.put(entry, oldIndex);
+				}
+			}
+		}
 	}
 
 	private ConstantRef addConstant(ConstantPoolEntry entry) {
-		for (int index = constants.size() - 1; index > 0; index--) {
-			if (entry.isEqualTo((ConstantPoolEntry) constants.elementAt(index)))
-				return new ConstantRef(index, this);
+		if (constantIndex == null) {
+			int count = constants.size();
+			constantIndex = new ObjHashtable(count + (count >> 1) + 16);
+			for (int i = 1; i < count; i++) {
+				indexConstantAt(i);
+			}
 		}
+		Integer index = (Integer) constantIndex.get(entry);
+		if (index != null)
+			return new ConstantRef(index.intValue(), this);
 		constants.addElement(entry);
+		indexConstantAt(constants.size() - 1);
 		return new ConstantRef(constants.size() - 1, this);
 	}
 
@@ -332,7 +443,7 @@ final class ClassFile extends ClassEntity {
 				AccessFlags.makeStatic(), addUtfConst(nameValue),
 				addUtfConst(descriptorValue));
 		method.addAttribute(new AttributeEntry(addUtfConst(AttrCodeContent
-				.nameValue()), new AttrCodeContent()));
+				.nameValue()), new AttrCodeContent(this)));
 		method.addAttribute(makeSyntheticAttribute());
 		methods.addElement(method);
 		return getMethodsCount() - 1;
@@ -0,0 +1,118 @@
+/*
+ * @(#) net/sf/jadretro/ClassInputBuffer.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.EOFException;
+
+final class ClassInputBuffer {
+
+	private/* final */byte[] bytes;
+
+	private int pos;
+
+	private int limit;
+
+	ClassInputBuffer(byte[] bytes, int len) {
+		this.bytes = bytes;
+		limit = len;
+	}
+
+	int read() {
+		return pos < limit ? bytes[pos++] & 0xff : -1;
+	}
+
+	int available() {
+		return limit - pos;
+	}
+
+	int position() {
+		return pos;
+	}
+
+	int readUnsignedByte() throws EOFException {
+		if (pos >= limit)
+			throw new EOFException();
+		return bytes[pos++] & 0xff;
+	}
+
+	int readUnsignedShort() throws EOFException {
+		skip(2);
+		return ((bytes[pos - 2] & 0xff) << 8) | (bytes[pos - 1] & 0xff);
+	}
+
+	int readInt() throws EOFException {
+		skip(4);
+		return (bytes[pos - 4] << 24) | ((bytes[pos - 3] & 0xff) << 16)
+				| ((bytes[pos - 2] & 0xff) << 8) | (bytes[pos - 1] & 0xff);
+	}
+
+	byte[] array() {
+		return bytes;
+	}
+
+	int readSlice(int len) throws EOFException {
+		skip(len);
+		return pos - len;
+	}
+
+	void readFully(byte[] dest) throws EOFException {
+		int len = dest.length;
+		skip(len);
+		System.arraycopy(bytes, pos - len, dest, 0, len);
+	}
+
+	int pushLimit(int len) throws EOFException {
+		if (limit - pos < len)
+			throw new EOFException();
+		int oldLimit = limit;
+		limit = pos + len;
+		return oldLimit;
+	}
+
+	void popLimit(int oldLimit) {
+		limit = oldLimit;
+	}
+
+	private void skip(int len) throws EOFException {
+		if (limit - pos < len) {
+			pos = limit;
+			throw new EOFException();
+		}
+		pos += len;
+	}
+}
@@ -37,14 +37,12 @@
 
 package net.sf.jadretro;
 
-import java.util.Vector;
-
 abstract class ClassLabeledEntity extends ClassEntity {
 
 	void mapLabelsPc(int[] indices) throws BadClassFileException {
 	}
 
-	static void mapLabelsPcForArray(Vector entries, int[] indices)
+	static void mapLabelsPcForArray(ObjVector entries, int[] indices)
 			throws BadClassFileException {
 		int count = entries.size();
 		for (int i = 0; i < count; i++) {
@@ -56,33 +54,38 @@ abstract class ClassLabeledEntity extends ClassEntity {
 		return false;
 	}
 
-	static boolean removeLabelsInRangeForArray(Vector entries, int startIndex,
+	static boolean removeLabelsInRangeForArray(ObjVector entries, int startIndex,
 			int endIndex) {
-		for (int i = entries.size() - 1; i >= 0; i--) {
-			if (((ClassLabeledEntity) entries.elementAt(i))
-					.removeLabelsInRange(startIndex, endIndex)) {
-				entries.removeElementAt(i);
+		int count = entries.size();
+		int j = 0;
+		for (int i = 0; i < count; i++) {
+			ClassLabeledEntity entry = (ClassLabeledEntity) entries
+					.elementAt(i);
+			if (!entry.removeLabelsInRange(startIndex, endIndex)) {
+				if (i != j) {
+					entries.setElementAt(entry, j);
+				}
+				j++;
 			}
 		}
-		return entries.size() == 0;
+		entries.setSize(j);
+		return j == 0;
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
+	void bindLabels(CodeEditLog editLog) {
 	}
 
-	static void incLabelIndicesForArray(Vector entries, int startIndex,
-			int incValue) {
+	static void bindLabelsForArray(ObjVector entries, CodeEditLog editLog) {
 		int count = entries.size();
 		for (int i = 0; i < count; i++) {
-			((ClassLabeledEntity) entries.elementAt(i)).incLabelIndices(
-					startIndex, incValue);
+			((ClassLabeledEntity) entries.elementAt(i)).bindLabels(editLog);
 		}
 	}
 
 	void rebuildLabelsPc(int[] offsets) {
 	}
 
-	static void rebuildLabelsPcForArray(Vector entries, int[] offsets) {
+	static void rebuildLabelsPcForArray(ObjVector entries, int[] offsets) {
 		int count = entries.size();
 		for (int i = 0; i < count; i++) {
 			((ClassLabeledEntity) entries.elementAt(i))
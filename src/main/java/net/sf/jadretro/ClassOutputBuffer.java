@@ -0,0 +1,128 @@
+/*
+ * @(#) net/sf/jadretro/ClassOutputBuffer.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+final class ClassOutputBuffer {
+
+	private byte[] bytes;
+
+	private int count;
+
+	ClassOutputBuffer(int size) {
+		bytes = new byte[size > 0 ? size : 0x100];
+	}
+
+	ClassOutputBuffer(byte[] bytes) {
+		this.bytes = bytes;
+		count = bytes.length;
+	}
+
+	void write(int value) {
+		if (bytes.length == count) {
+			grow(1);
+		}
+		bytes[count++] = (byte) value;
+	}
+
+	void write(byte[] src) {
+		write(src, 0, src.length);
+	}
+
+	void write(byte[] src, int ofs, int len) {
+		if (bytes.length - count < len) {
+			grow(len);
+		}
+		System.arraycopy(src, ofs, bytes, count, len);
+		count += len;
+	}
+
+	void writeShort(int value) {
+		if (bytes.length - count < 2) {
+			grow(2);
+		}
+		bytes[count] = (byte) (value >> 8);
+		bytes[count + 1] = (byte) value;
+		count += 2;
+	}
+
+	void writeInt(int value) {
+		if (bytes.length - count < 4) {
+			grow(4);
+		}
+		putIntAt(count, value);
+		count += 4;
+	}
+
+	void putIntAt(int pos, int value) {
+		bytes[pos] = (byte) (value >> 24);
+		bytes[pos + 1] = (byte) (value >> 16);
+		bytes[pos + 2] = (byte) (value >> 8);
+		bytes[pos + 3] = (byte) value;
+	}
+
+	int size() {
+		return count;
+	}
+
+	void reset() {
+		count = 0;
+	}
+
+	byte[] toByteArray() {
+		byte[] result = new byte[count];
+		System.arraycopy(bytes, 0, result, 0, count);
+		return result;
+	}
+
+	void writeTo(OutputStream out) throws IOException {
+		out.write(bytes, 0, count);
+	}
+
+	private void grow(int len) {
+		int newSize = bytes.length << 1;
+		if (newSize - count < len) {
+			newSize = count + len;
+		}
+		byte[] newBytes = new byte[newSize];
+		System.arraycopy(bytes, 0, newBytes, 0, count);
+		bytes = newBytes;
+	}
+}
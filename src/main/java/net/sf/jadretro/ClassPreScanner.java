@@ -0,0 +1,517 @@
+/*
+ * @(#) net/sf/jadretro/ClassPreScanner.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+final class ClassPreScanner {
+
+	private static final int ACC_STATIC = 0x8;
+
+	private static final int ACC_FINAL = 0x10;
+
+	private static final int ACC_VOLATILE = 0x40;
+
+	private static final int ACC_TRANSIENT = 0x80;
+
+	private static final int ACC_SYNTHETIC = 0x1000;
+
+	private static final int ACONST_NULL = 0x1;
+
+	private static final int ANEWARRAY = 0xbd;
+
+	private static final int BIPUSH = 0x10;
+
+	private static final int CHECKCAST = 0xc0;
+
+	private static final int DCONST_0 = 0xe;
+
+	private static final int FCONST_0 = 0xb;
+
+	private static final int GETSTATIC = 0xb2;
+
+	private static final int ICONST_0 = 0x3;
+
+	private static final int INSTANCEOF = 0xc1;
+
+	private static final int INVOKEINTERFACE = 0xb9;
+
+	private static final int LCONST_0 = 0x9;
+
+	private static final int LDC = 0x12;
+
+	private static final int LDC2_W = 0x14;
+
+	private static final int LDC_W = 0x13;
+
+	private static final int MULTIANEWARRAY = 0xc5;
+
+	private static final int NEW = 0xbb;
+
+	private static final int PUTFIELD = 0xb5;
+
+	private static final int SIPUSH = 0x11;
+
+	private/* final */byte[] bytes;
+
+	private int pos;
+
+	private int limit;
+
+	private byte[] constTags;
+
+	private int[] constOffsets;
+
+	private boolean hasOuterFieldNames;
+
+	private boolean isAnonymousClass;
+
+	private boolean isMethod;
+
+	private int memberFlags;
+
+	private int memberName;
+
+	private int memberDescriptor;
+
+	private int codeAttrsCount;
+
+	private boolean hasSyntheticAttr;
+
+	private ClassPreScanner(byte[] bytes, int len) {
+		this.bytes = bytes;
+		limit = len;
+	}
+
+	static String unchangedClassName(byte[] bytes, int len, boolean setOldVer,
+			boolean keepBridgeMethods, boolean noAdjLocClassNames) {
+		try {
+			return new ClassPreScanner(bytes, len).scan(setOldVer,
+					keepBridgeMethods, noAdjLocClassNames);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private String scan(boolean setOldVer, boolean keepBridgeMethods,
+			boolean noAdjLocClassNames) throws IOException {
+		if (nextInt() != ClassFile.MAGIC_VALUE)
+			return null;
+		int minorVer = nextUnsignedShort();
+		int majorVer = nextUnsignedShort();
+		if (!ClassFile.isSupportedVer(majorVer, minorVer)
+				|| (setOldVer && ClassFile.getJavaVer(majorVer, minorVer) > 3)
+				|| !scanConstPool(noAdjLocClassNames))
+			return null;
+		skip(2);
+		int thisClass = nextConstIndex(ConstantPoolEntry.CLASS_TAG, false);
+		int superClass = nextConstIndex(ConstantPoolEntry.CLASS_TAG, true);
+		for (int count = nextUnsignedShort(); count > 0; count--) {
+			nextConstIndex(ConstantPoolEntry.CLASS_TAG, false);
+		}
+		String className = utfValueAt(ClassEntity.getUnsignedShortAt(bytes,
+				constOffsets[thisClass]));
+		boolean isInnerClass = false;
+		int innerNamePos = className.lastIndexOf('$', className.length() - 2);
+		if (innerNamePos >= 0 && className.lastIndexOf('/') + 1 < innerNamePos
+				&& superClass != 0) {
+			if (hasOuterFieldNames)
+				return null;
+			isInnerClass = true;
+			int i = className.length();
+			while (--i > innerNamePos) {
+				char ch = className.charAt(i);
+				if (ch < '0' || ch > '9')
+					break;
+			}
+			isAnonymousClass = innerNamePos == i;
+		}
+		if (!scanMembers(false, isInnerClass, keepBridgeMethods)
+				|| !scanMembers(true, isInnerClass, keepBridgeMethods))
+			return null;
+		isMethod = false;
+		if (!scanAttributes(null) || pos != limit)
+			return null;
+		return className;
+	}
+
+	private boolean scanConstPool(boolean noAdjLocClassNames)
+			throws IOException {
+		int count = nextUnsignedShort();
+		if (count == 0)
+			throw new BadClassFileException();
+		byte[] tags = new byte[count];
+		int[] offsets = new int[count];
+		constTags = tags;
+		constOffsets = offsets;
+		for (int i = 1; i < count; i++) {
+			int tag = nextUnsignedByte();
+			tags[i] = (byte) tag;
+			offsets[i] = pos;
+			if (tag == ConstantPoolEntry.CLASS_TAG
+					|| tag == ConstantPoolEntry.STRING_TAG) {
+				skip(2);
+			} else if (tag == ConstantPoolEntry.FIELDREF_TAG
+					|| tag == ConstantPoolEntry.METHODREF_TAG
+					|| tag == ConstantPoolEntry.IFACEMETHOD_TAG
+					|| tag == ConstantPoolEntry.NAMETYPE_TAG
+					|| tag == ConstantPoolEntry.INTEGER_TAG
+					|| tag == ConstantPoolEntry.FLOAT_TAG) {
+				skip(4);
+			} else if (tag == ConstantPoolEntry.LONG_TAG
+					|| tag == ConstantPoolEntry.DOUBLE_TAG) {
+				skip(8);
+				if (++i == count)
+					throw new BadClassFileException();
+			} else {
+				if (tag != ConstantPoolEntry.UTF8_TAG)
+					throw new BadClassFileException();
+				int len = nextUnsignedShort();
+				skip(len);
+				if (!ConstUtfContent.isValidUTF(bytes, pos - len, len))
+					throw new BadClassFileException();
+				if (!isUnchangedUtf(pos - len, len, noAdjLocClassNames))
+					return false;
+			}
+		}
+		for (int i = 1; i < count; i++) {
+			int tag = tags[i];
+			int ofs = offsets[i];
+			if (tag == ConstantPoolEntry.CLASS_TAG
+					|| tag == ConstantPoolEntry.STRING_TAG) {
+				checkConstTagAt(ofs, ConstantPoolEntry.UTF8_TAG);
+			} else if (tag == ConstantPoolEntry.NAMETYPE_TAG) {
+				checkConstTagAt(ofs, ConstantPoolEntry.UTF8_TAG);
+				checkConstTagAt(ofs + 2, ConstantPoolEntry.UTF8_TAG);
+			} else if (tag == ConstantPoolEntry.FIELDREF_TAG
+					|| tag == ConstantPoolEntry.METHODREF_TAG
+					|| tag == ConstantPoolEntry.IFACEMETHOD_TAG) {
+				checkConstTagAt(ofs, ConstantPoolEntry.CLASS_TAG);
+				checkConstTagAt(ofs + 2, ConstantPoolEntry.NAMETYPE_TAG);
+			}
+		}
+		return true;
+	}
+
+	private boolean isUnchangedUtf(int ofs, int len,
+			boolean noAdjLocClassNames) {
+		int i = ofs + len;
+		do {
+			if (i == ofs)
+				return true;
+		} while (bytes[--i] != '$');
+		String value = utfValue(ofs, len);
+		if (value.startsWith("class$") || value.startsWith("array$")
+				|| value.equals("cl$") || value.equals("$assertionsDisabled"))
+			return false;
+		if (value.startsWith("this$") || value.startsWith("val$")) {
+			hasOuterFieldNames = true;
+		}
+		return noAdjLocClassNames
+				|| (Main.adjustLocalClassName(value) == null && Main
+						.adjustLocClassInDescriptor(value) == null);
+	}
+
+	private boolean scanMembers(boolean isMethod, boolean isInnerClass,
+			boolean keepBridgeMethods) throws IOException {
+		for (int count = nextUnsignedShort(); count > 0; count--) {
+			int flags = nextUnsignedShort();
+			if (isMethod
+					&& ((!keepBridgeMethods && (flags & ACC_VOLATILE) != 0)
+							|| (flags & ACC_TRANSIENT) != 0))
+				return false;
+			this.isMethod = isMethod;
+			memberFlags = flags;
+			memberName = nextConstIndex(ConstantPoolEntry.UTF8_TAG, false);
+			memberDescriptor = nextConstIndex(ConstantPoolEntry.UTF8_TAG,
+					false);
+			codeAttrsCount = 0;
+			hasSyntheticAttr = false;
+			if (!scanAttributes(null) || codeAttrsCount > 1)
+				return false;
+			if ((flags & ACC_SYNTHETIC) != 0
+					&& !hasSyntheticAttr
+					&& (isMethod || !isInnerClass
+							|| (flags & ACC_STATIC) == 0 || (flags & ACC_FINAL) == 0))
+				return false;
+		}
+		return true;
+	}
+
+	private boolean scanAttributes(int[] indices) throws IOException {
+		for (int count = nextUnsignedShort(); count > 0; count--) {
+			int name = nextConstIndex(ConstantPoolEntry.UTF8_TAG, false);
+			int len = nextInt();
+			if (len < 0 || limit - pos < len)
+				throw new BadClassFileException();
+			int oldLimit = limit;
+			limit = pos + len;
+			if (isUtfEqual(name, AttrCodeContent.nameValue())) {
+				if (indices != null || !scanCode())
+					return false;
+			} else if (isUtfEqual(name, AttrLineNumsContent.nameValue())) {
+				for (int i = nextUnsignedShort(); i > 0; i--) {
+					int startPc = nextUnsignedShort();
+					skip(2);
+					if (indices != null) {
+						checkLabelPc(startPc, indices, false);
+					}
+				}
+			} else if (isUtfEqual(name, AttrLocalVarsContent.nameValue())
+					|| isUtfEqual(name, "LocalVariableTypeTable")) {
+				for (int i = nextUnsignedShort(); i > 0; i--) {
+					int startPc = nextUnsignedShort();
+					int endPc = nextUnsignedShort() + startPc;
+					nextConstIndex(ConstantPoolEntry.UTF8_TAG, false);
+					nextConstIndex(ConstantPoolEntry.UTF8_TAG, false);
+					skip(2);
+					if (indices != null) {
+						checkLabelPc(startPc, indices, false);
+						checkLabelPc(endPc, indices, true);
+					}
+				}
+			} else if (isUtfEqual(name, AttrInnerClassContent.nameValue())) {
+				for (int i = nextUnsignedShort(); i > 0; i--) {
+					nextConstIndex(ConstantPoolEntry.CLASS_TAG, true);
+					nextConstIndex(ConstantPoolEntry.CLASS_TAG, true);
+					nextConstIndex(ConstantPoolEntry.UTF8_TAG, true);
+					skip(2);
+				}
+			} else {
+				if (indices == null
+						&& isUtfEqual(name, AttrRawContent.syntheticName())) {
+					hasSyntheticAttr = true;
+				}
+				pos = limit;
+			}
+			if (pos != limit)
+				throw new BadClassFileException();
+			limit = oldLimit;
+		}
+		return true;
+	}
+
+	private boolean scanCode() throws IOException {
+		skip(2);
+		int maxLocals = nextUnsignedShort();
+		int codeLen = nextInt();
+		if (codeLen <= 0 || limit - pos < codeLen)
+			throw new BadClassFileException();
+		byte[] code = new byte[codeLen];
+		System.arraycopy(bytes, pos, code, 0, codeLen);
+		pos += codeLen;
+		int[] indices = AttrCodeContent.scanRawCode(code, constTags.length);
+		if (nextUnsignedShort() > 0 || !scanAttributes(indices))
+			return false;
+		if (!isMethod)
+			return true;
+		codeAttrsCount++;
+		int argSlots = getArgSlotsCount();
+		return argSlots >= 0
+				&& argSlots <= maxLocals
+				&& isUnchangedCode(code, indices, isAnonymousClass
+						&& isUtfEqual(memberName, "<init>"));
+	}
+
+	private int getArgSlotsCount() throws IOException {
+		int ofs = constOffsets[memberDescriptor];
+		int len = ClassEntity.getUnsignedShortAt(bytes, ofs);
+		ofs += 2;
+		if (len <= 2 || bytes[ofs] != '(')
+			return -1;
+		int endPos = 0;
+		for (int i = 0; i < len; i++) {
+			int ch = bytes[ofs + i];
+			if (ch <= 0)
+				return -1;
+			if (ch == ')') {
+				endPos = i;
+			}
+		}
+		if (endPos == 0)
+			return -1;
+		int argSlots = (memberFlags & ACC_STATIC) != 0 ? 0 : 1;
+		for (int i = 1; i < endPos; i++) {
+			int ch = bytes[ofs + i];
+			argSlots++;
+			if (ch == 'D' || ch == 'J') {
+				argSlots++;
+			} else {
+				while (ch == '[') {
+					ch = bytes[ofs + (++i)];
+				}
+				if (ch == 'L') {
+					do {
+						if (++i >= endPos)
+							return -1;
+					} while (bytes[ofs + i] != ';');
+				}
+			}
+		}
+		return argSlots;
+	}
+
+	private boolean isUnchangedCode(byte[] code, int[] indices,
+			boolean isZeroInitAllowed) throws IOException {
+		int prevOp = -1;
+		int prevPc = 0;
+		for (int pc = 0; pc < code.length; pc++) {
+			if (indices[pc] >= 0) {
+				int op = code[pc] & 0xff;
+				if (op == LDC || op == LDC_W) {
+					int tag = constTags[op == LDC ? code[pc + 1] & 0xff
+							: ClassEntity.getUnsignedShortAt(code, pc + 1)];
+					if (tag != ConstantPoolEntry.INTEGER_TAG
+							&& tag != ConstantPoolEntry.FLOAT_TAG
+							&& tag != ConstantPoolEntry.STRING_TAG)
+						return false;
+				} else if (op == LDC2_W
+						|| (op >= GETSTATIC && op <= INVOKEINTERFACE)
+						|| op == NEW || op == ANEWARRAY || op == CHECKCAST
+						|| op == INSTANCEOF || op == MULTIANEWARRAY) {
+					if (!isConstOpTag(op, constTags[ClassEntity
+							.getUnsignedShortAt(code, pc + 1)]))
+						return false;
+					if (op == CHECKCAST && prevOp == CHECKCAST)
+						return false;
+					if (op == PUTFIELD && isZeroInitAllowed
+							&& isXConstZeroAt(code, prevPc, prevOp))
+						return false;
+				}
+				prevOp = op;
+				prevPc = pc;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isConstOpTag(int op, int tag) {
+		if (op == LDC2_W)
+			return tag == ConstantPoolEntry.LONG_TAG
+					|| tag == ConstantPoolEntry.DOUBLE_TAG;
+		if (op >= GETSTATIC && op <= PUTFIELD)
+			return tag == ConstantPoolEntry.FIELDREF_TAG;
+		if (op == INVOKEINTERFACE)
+			return tag == ConstantPoolEntry.IFACEMETHOD_TAG;
+		if (op > PUTFIELD && op < INVOKEINTERFACE)
+			return tag == ConstantPoolEntry.METHODREF_TAG
+					|| tag == ConstantPoolEntry.IFACEMETHOD_TAG;
+		return tag == ConstantPoolEntry.CLASS_TAG;
+	}
+
+	private static boolean isXConstZeroAt(byte[] code, int pc, int op) {
+		if (op == BIPUSH)
+			return code[pc + 1] == 0;
+		if (op == SIPUSH)
+			return code[pc + 1] == 0 && code[pc + 2] == 0;
+		return op == ACONST_NULL || op == ICONST_0 || op == LCONST_0
+				|| op == FCONST_0 || op == DCONST_0;
+	}
+
+	private void checkLabelPc(int targetPc, int[] indices,
+			boolean isMaxAllowed) throws BadClassFileException {
+		if (indices.length - (isMaxAllowed ? 0 : 1) <= targetPc
+				|| indices[targetPc] < 0)
+			throw new BadClassFileException();
+	}
+
+	private int nextConstIndex(int tag, boolean isZeroAllowed)
+			throws IOException {
+		int index = nextUnsignedShort();
+		if (index != 0 || !isZeroAllowed) {
+			checkConstTag(index, tag);
+		}
+		return index;
+	}
+
+	private void checkConstTagAt(int ofs, int tag) throws IOException {
+		checkConstTag(ClassEntity.getUnsignedShortAt(bytes, ofs), tag);
+	}
+
+	private void checkConstTag(int index, int tag)
+			throws BadClassFileException {
+		if (constTags.length <= index || constTags[index] != tag)
+			throw new BadClassFileException();
+	}
+
+	private boolean isUtfEqual(int index, String value) throws IOException {
+		int ofs = constOffsets[index];
+		int len = value.length();
+		if (ClassEntity.getUnsignedShortAt(bytes, ofs) != len)
+			return false;
+		ofs += 2;
+		for (int i = 0; i < len; i++) {
+			if (bytes[ofs + i] != value.charAt(i))
+				return false;
+		}
+		return true;
+	}
+
+	private String utfValueAt(int index) throws IOException {
+		int ofs = constOffsets[index];
+		return utfValue(ofs + 2, ClassEntity.getUnsignedShortAt(bytes, ofs));
+	}
+
+	private String utfValue(int ofs, int len) {
+		return ConstUtfContent.decodeUTF(bytes, ofs, len);
+	}
+
+	private int nextUnsignedByte() throws EOFException {
+		if (pos >= limit)
+			throw new EOFException();
+		return bytes[pos++] & 0xff;
+	}
+
+	private int nextUnsignedShort() throws EOFException {
+		skip(2);
+		return ((bytes[pos - 2] & 0xff) << 8) | (bytes[pos - 1] & 0xff);
+	}
+
+	private int nextInt() throws EOFException {
+		skip(4);
+		return (bytes[pos - 4] << 24) | ((bytes[pos - 3] & 0xff) << 16)
+				| ((bytes[pos - 2] & 0xff) << 8) | (bytes[pos - 1] & 0xff);
+	}
+
+	private void skip(int len) throws EOFException {
+		if (limit - pos < len)
+			throw new EOFException();
+		pos += len;
+	}
+}
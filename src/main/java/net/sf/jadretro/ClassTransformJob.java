@@ -0,0 +1,376 @@
+/*
+ * @(#) net/sf/jadretro/ClassTransformJob.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+final class ClassTransformJob implements Runnable {
+
+	private/* final */File infile;
+
+	private/* final */ZipArchiveEntry entry;
+
+	private/* final */byte[] entryData;
+
+	private/* final */int entryMethod;
+
+	private/* final */int entrySize;
+
+	private/* final */String path;
+
+	private/* final */boolean keepBridgeMethods;
+
+	private/* final */boolean noAdjLocClassNames;
+
+	private/* final */boolean setOldVer;
+
+	private TransformCache cache;
+
+	private JobQueue nextQueue;
+
+	private byte[] classData;
+
+	private int classLen;
+
+	private String className;
+
+	private String newClassName;
+
+	private boolean isChanged;
+
+	private ClassOutputBuffer classBytes;
+
+	private byte[] newEntryData;
+
+	private int newEntrySize;
+
+	private int newEntryCrc;
+
+	private IOException readError;
+
+	private IOException processError;
+
+	private Throwable fatalError;
+
+	private boolean isDone;
+
+	private boolean isStale;
+
+	private ManifestEntry manifestEntry;
+
+	private boolean isRestored;
+
+	ClassTransformJob(File infile, String path, boolean keepBridgeMethods,
+			boolean noAdjLocClassNames, boolean setOldVer) {
+		this.infile = infile;
+		this.path = path;
+		this.keepBridgeMethods = keepBridgeMethods;
+		this.noAdjLocClassNames = noAdjLocClassNames;
+		this.setOldVer = setOldVer;
+	}
+
+	ClassTransformJob(ZipArchiveEntry entry, byte[] entryData, String path,
+			boolean keepBridgeMethods, boolean noAdjLocClassNames,
+			boolean setOldVer) {
+		this.entry = entry;
+		this.entryData = entryData;
+		entryMethod = entry.method();
+		entrySize = entry.size();
+		this.path = path;
+		this.keepBridgeMethods = keepBridgeMethods;
+		this.noAdjLocClassNames = noAdjLocClassNames;
+		this.setOldVer = setOldVer;
+	}
+
+	public void run() {
+		if (nextQueue != null) {
+			JobQueue queue = nextQueue;
+			nextQueue = null;
+			try {
+				readInput();
+			} catch (IOException e) {
+				readError = e;
+			}
+			queue.put(this);
+			return;
+		}
+		try {
+			if (classData == null && readError == null) {
+				readInput();
+			}
+			if (readError == null) {
+				byte[] bytes = classData;
+				int len = classLen;
+				classData = null;
+				if (manifestEntry != null) {
+					manifestEntry.setCrc(OutputManifest.crcOf(bytes, len));
+				}
+				className = ClassPreScanner.unchangedClassName(bytes, len,
+						setOldVer, keepBridgeMethods, noAdjLocClassNames);
+				if (className == null) {
+					String key = cache != null ? cache.keyOf(bytes, 0, len)
+							: null;
+					TransformResult result = key != null ? cache.lookup(key)
+							: null;
+					if (result != null) {
+						applyCached(result);
+					} else {
+						transform(new ClassFile(bytes, len), len);
+						if (key != null && processError == null
+								&& (classBytes != null || !isChanged)) {
+							cache.store(key, new TransformResult(className,
+									newClassName, classBytes != null
+											? classBytes.toByteArray()
+											: null, null));
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			readError = e;
+		} catch (RuntimeException e) {
+			fatalError = e;
+		} catch (Error e) {
+			fatalError = e;
+		} finally {
+			synchronized (this) {
+				isDone = true;
+				notifyAll();
+			}
+		}
+	}
+
+	void pipeTo(JobQueue queue) {
+		nextQueue = queue;
+	}
+
+	private void readInput() throws IOException {
+		if (entry != null) {
+			classData = ZipArchive.decode(entryData, entryMethod, entrySize);
+			classLen = entrySize;
+		} else {
+			int[] lenRef = new int[1];
+			classData = readFile(infile, lenRef);
+			classLen = lenRef[0];
+		}
+	}
+
+	private static byte[] readFile(File file, int[] lenRef)
+			throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			long fileLen = file.length();
+			int size = fileLen > 0 && fileLen < 0x1000000 ? (int) fileLen + 1
+					: 0x1000;
+			byte[] bytes = new byte[size];
+			int len = 0;
+			int res;
+			while ((res = in.read(bytes, len, bytes.length - len)) >= 0) {
+				if ((len += res) == bytes.length) {
+					byte[] newBytes = new byte[len << 1];
+					System.arraycopy(bytes, 0, newBytes, 0, len);
+					bytes = newBytes;
+				}
+			}
+			lenRef[0] = len;
+			return bytes;
+		} finally {
+			in.close();
+		}
+	}
+
+	private void transform(ClassFile classFile, int len)
+			throws BadClassFileException {
+		className = classFile.className();
+		if (!noAdjLocClassNames && Main.fixLocalClassNames(classFile)) {
+			isChanged = true;
+			String name = classFile.className();
+			if (!name.equals(className)) {
+				newClassName = name;
+			}
+		}
+		try {
+			if (Main.process(classFile, setOldVer, keepBridgeMethods, false)) {
+				isChanged = true;
+			}
+			if (isChanged) {
+				ClassOutputBuffer out = new ClassOutputBuffer(len + (len >> 3));
+				classFile.writeTo(out);
+				if (entry != null) {
+					encodeEntry(out.toByteArray());
+				}
+				classBytes = out;
+			}
+		} catch (ClassOverflowException e) {
+		} catch (IOException e) {
+			processError = e;
+		}
+	}
+
+	private void applyCached(TransformResult result) {
+		className = result.className();
+		newClassName = result.newClassName();
+		byte[] bytes = result.classBytes();
+		if (bytes != null) {
+			isChanged = true;
+			if (entry != null) {
+				encodeEntry(bytes);
+			}
+			classBytes = new ClassOutputBuffer(bytes);
+		}
+	}
+
+	private void encodeEntry(byte[] bytes) {
+		CRC32 crc32 = new CRC32();
+		crc32.update(bytes);
+		newEntryCrc = (int) crc32.getValue();
+		newEntrySize = bytes.length;
+		newEntryData = entryMethod != ZipArchive.STORED ? ZipArchive
+				.deflate(bytes) : bytes;
+	}
+
+	void waitDone() throws IOException {
+		synchronized (this) {
+			while (!isDone) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+				}
+			}
+		}
+		if (isStale) {
+			isStale = false;
+			reset();
+			run();
+		}
+		if (fatalError != null) {
+			if (fatalError instanceof RuntimeException)
+				throw (RuntimeException) fatalError;
+			throw (Error) fatalError;
+		}
+		if (readError != null)
+			throw readError;
+	}
+
+	private void reset() {
+		className = null;
+		newClassName = null;
+		isChanged = false;
+		classBytes = null;
+		newEntryData = null;
+		classData = null;
+		readError = null;
+		processError = null;
+		isRestored = false;
+	}
+
+	void setCache(TransformCache cache) {
+		this.cache = cache;
+	}
+
+	void setManifestEntry(ManifestEntry entry) {
+		manifestEntry = entry;
+	}
+
+	void restore(ManifestEntry entry) {
+		manifestEntry = entry;
+		className = entry.className();
+		newClassName = entry.newClassName();
+		isChanged = entry.isChanged();
+		isRestored = true;
+		isDone = true;
+	}
+
+	ManifestEntry manifestEntry() {
+		return manifestEntry;
+	}
+
+	boolean isRestored() {
+		return isRestored;
+	}
+
+	void markStale() {
+		isStale = true;
+	}
+
+	File infile() {
+		return infile;
+	}
+
+	ZipArchiveEntry entry() {
+		return entry;
+	}
+
+	String path() {
+		return path;
+	}
+
+	String className() {
+		return className;
+	}
+
+	String newClassName() {
+		return newClassName;
+	}
+
+	boolean isChanged() throws IOException {
+		if (processError != null)
+			throw processError;
+		return isChanged;
+	}
+
+	ClassOutputBuffer classBytes() {
+		return classBytes;
+	}
+
+	byte[] newEntryData() {
+		return newEntryData;
+	}
+
+	int newEntrySize() {
+		return newEntrySize;
+	}
+
+	int newEntryCrc() {
+		return newEntryCrc;
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * @(#) net/sf/jadretro/ClassTransformer.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * The thread-safe transformer of in-memory class files (no file or console
+ * I/O is performed).
+ */
+public final class ClassTransformer {
+
+	private/* final */TransformOptions options;
+
+	public ClassTransformer(TransformOptions options) {
+		this.options = options;
+	}
+
+	public TransformOptions options() {
+		return options;
+	}
+
+	public TransformResult transform(byte[] bytes) {
+		return transform(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Quickly checks whether the class file stored in the specified part of
+	 * the array might be changed by transform() (i.e., false is returned
+	 * only if the class is surely left intact).
+	 */
+	public boolean mayChange(byte[] bytes, int offset, int len) {
+		bytes = sliceOf(bytes, offset, len);
+		return ClassPreScanner.unchangedClassName(bytes, len, options
+				.setOldVer(), options.keepBridgeMethods(), options
+				.noAdjLocClassNames()) == null;
+	}
+
+	/**
+	 * Transforms the class file stored in the specified part of the array
+	 * (the array is not modified and not retained).
+	 */
+	public TransformResult transform(byte[] bytes, int offset, int len) {
+		bytes = sliceOf(bytes, offset, len);
+		boolean keepBridgeMethods = options.keepBridgeMethods();
+		boolean noAdjLocClassNames = options.noAdjLocClassNames();
+		boolean setOldVer = options.setOldVer();
+		String className = ClassPreScanner.unchangedClassName(bytes, len,
+				setOldVer, keepBridgeMethods, noAdjLocClassNames);
+		if (className != null)
+			return new TransformResult(className, null, null, null);
+		try {
+			ClassFile classFile = new ClassFile(bytes, len);
+			className = classFile.className();
+			String newClassName = null;
+			boolean isChanged = false;
+			if (!noAdjLocClassNames && Main.fixLocalClassNames(classFile)) {
+				isChanged = true;
+				String name = classFile.className();
+				if (!name.equals(className)) {
+					newClassName = name;
+				}
+			}
+			if (Main.process(classFile, setOldVer, keepBridgeMethods, options
+					.keepSemantics())) {
+				isChanged = true;
+			}
+			if (!isChanged)
+				return new TransformResult(className, null, null, null);
+			ClassOutputBuffer out = new ClassOutputBuffer(len + (len >> 3));
+			classFile.writeTo(out);
+			return new TransformResult(className, newClassName, out
+					.toByteArray(), null);
+		} catch (ClassOverflowException e) {
+			return new TransformResult(className, null, null, "too big class");
+		} catch (EOFException e) {
+			return new TransformResult(null, null, null,
+					"unexpected end of file");
+		} catch (IOException e) {
+			return new TransformResult(null, null, null, "invalid class file");
+		}
+	}
+
+	private static byte[] sliceOf(byte[] bytes, int offset, int len) {
+		if (offset < 0 || len < 0 || bytes.length - offset < len)
+			throw new IndexOutOfBoundsException();
+		if (offset == 0)
+			return bytes;
+		byte[] newBytes = new byte[len];
+		System.arraycopy(bytes, offset, newBytes, 0, len);
+		return newBytes;
+	}
+}
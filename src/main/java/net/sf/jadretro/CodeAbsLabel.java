@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class CodeAbsLabel extends ClassLabeledEntity {
 
@@ -47,18 +45,30 @@ final class CodeAbsLabel extends ClassLabeledEntity {
 
 	private int index = -1;
 
+	private CodeEditLog editLog;
+
+	private int epoch;
+
 	CodeAbsLabel() {
 	}
 
-	CodeAbsLabel(InputStream in, CodeAbsLabel other) throws IOException {
+	CodeAbsLabel(ClassInputBuffer in, CodeAbsLabel other) throws IOException {
 		targetPc = readUnsignedShort(in) + (other != null ? other.getPc() : 0);
 	}
 
-	CodeAbsLabel(InputStream in, boolean isWide, int curPc) throws IOException {
+	CodeAbsLabel(ClassInputBuffer in, boolean isWide, int curPc)
+			throws IOException {
 		if ((targetPc = (isWide ? readInt(in) : readShort(in)) + curPc) < 0)
 			throw new BadClassFileException();
 	}
 
+	static void checkRawTargetPc(int targetPc, int[] indices)
+			throws BadClassFileException {
+		if (targetPc < 0 || indices.length - 1 <= targetPc
+				|| indices[targetPc] < 0)
+			throw new BadClassFileException();
+	}
+
 	void mapLabelsPc(int[] indices) throws BadClassFileException {
 		mapLabelsPc(indices, false);
 	}
@@ -73,32 +83,42 @@ final class CodeAbsLabel extends ClassLabeledEntity {
 		}
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
-		if (index >= startIndex) {
-			setNewIndex(index + incValue);
+	void bindLabels(CodeEditLog editLog) {
+		if (this.editLog != editLog) {
+			this.editLog = editLog;
+			epoch = editLog.epoch();
+		} else if (epoch != editLog.epoch() && editLog.isCommitting()) {
+			editLog.addPendingLabel(this, index, epoch);
 		}
 	}
 
 	void rebuildLabelsPc(int[] offsets) {
+		int index = getIndex();
 		if (index < 0 || index >= offsets.length)
 			throw new IllegalArgumentException();
 		targetPc = offsets[index];
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		writeRelTo(out, null);
 	}
 
-	void writeRelTo(OutputStream out, CodeAbsLabel other) throws IOException {
+	void writeRelTo(ClassOutputBuffer out, CodeAbsLabel other)
+			throws IOException {
 		writeCheckedUShort(out, getPc() - (other != null ? other.getPc() : 0));
 	}
 
-	void writeRelTo(OutputStream out, boolean isWide, int curPc)
+	void writeRelTo(ClassOutputBuffer out, boolean isWide, int curPc)
 			throws IOException {
+		writeRelPcTo(out, getPc(), isWide, curPc);
+	}
+
+	static void writeRelPcTo(ClassOutputBuffer out, int targetPc,
+			boolean isWide, int curPc) throws IOException {
 		if (isWide) {
-			writeInt(out, getPc() - curPc);
+			writeInt(out, targetPc - curPc);
 		} else {
-			int value = getPc() - curPc;
+			int value = targetPc - curPc;
 			if (((short) value) != value)
 				throw new ClassOverflowException();
 			writeShort(out, value);
@@ -111,11 +131,17 @@ final class CodeAbsLabel extends ClassLabeledEntity {
 
 	boolean isEqualTo(CodeAbsLabel other, int startIndex, int deltaIndex,
 			int endIndex2, int[] indexRef) {
-		int diff = other.index - index;
+		return isEqualIndex(getIndex(), other.getIndex(), startIndex,
+				deltaIndex, endIndex2, indexRef);
+	}
+
+	static boolean isEqualIndex(int index, int otherIndex, int startIndex,
+			int deltaIndex, int endIndex2, int[] indexRef) {
+		int diff = otherIndex - index;
 		if (diff != 0) {
-			if (other.index != endIndex2)
+			if (otherIndex != endIndex2)
 				return diff == deltaIndex && index >= startIndex
-						&& other.index < endIndex2;
+						&& otherIndex < endIndex2;
 			if (indexRef[0] != index) {
 				if (indexRef[0] >= 0)
 					return false;
@@ -126,15 +152,28 @@ final class CodeAbsLabel extends ClassLabeledEntity {
 	}
 
 	boolean isInRange(int startIndex, int endIndex) {
+		int index = getIndex();
 		return index >= startIndex && index < endIndex;
 	}
 
 	int getIndex() {
+		if (editLog != null && epoch != editLog.epoch()) {
+			index = editLog.remapIndex(index, epoch);
+			epoch = editLog.epoch();
+		}
 		return index;
 	}
 
+	void setCommittedIndex(int index) {
+		this.index = index;
+		epoch = editLog.epoch();
+	}
+
 	void setNewIndex(int index) {
 		this.index = index;
+		if (editLog != null) {
+			epoch = editLog.epoch();
+		}
 		targetPc = -1;
 	}
 }
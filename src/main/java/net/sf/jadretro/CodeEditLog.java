@@ -0,0 +1,224 @@
+/*
+ * @(#) net/sf/jadretro/CodeEditLog.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+final class CodeEditLog {
+
+	private int[] startIndices = new int[0x10];
+
+	private int[] incValues = new int[0x10];
+
+	private int count;
+
+	private int committedCount;
+
+	private boolean isCommitting;
+
+	private ObjVector pendingLabels = new ObjVector();
+
+	private int[] pendingValues = new int[0x10];
+
+	private int[] pendingEpochs = new int[0x10];
+
+	private int[] mapStarts;
+
+	private int[] mapIncs;
+
+	private int mapSize;
+
+	CodeEditLog() {
+	}
+
+	int epoch() {
+		return count;
+	}
+
+	void addShift(int startIndex, int incValue) {
+		if (count == startIndices.length) {
+			startIndices = grow(startIndices, count);
+			incValues = grow(incValues, count);
+		}
+		startIndices[count] = startIndex;
+		incValues[count++] = incValue;
+	}
+
+	private static int[] grow(int[] values, int count) {
+		int[] newValues = new int[count << 1];
+		System.arraycopy(values, 0, newValues, 0, count);
+		return newValues;
+	}
+
+	int remapIndex(int index, int epoch) {
+		while (epoch < count) {
+			if (index >= startIndices[epoch]) {
+				index += incValues[epoch];
+			}
+			epoch++;
+		}
+		return index;
+	}
+
+	boolean hasUncommittedShifts() {
+		return committedCount != count;
+	}
+
+	void beginCommit() {
+		isCommitting = true;
+	}
+
+	boolean isCommitting() {
+		return isCommitting;
+	}
+
+	void addPendingLabel(CodeAbsLabel label, int index, int epoch) {
+		addPending(label, index, epoch);
+	}
+
+	void addPendingTarget(int opIndex, int epoch) {
+		addPending(null, opIndex, epoch);
+	}
+
+	private void addPending(CodeAbsLabel label, int value, int epoch) {
+		int pendingCount = pendingLabels.size();
+		if (pendingCount == pendingValues.length) {
+			pendingValues = grow(pendingValues, pendingCount);
+			pendingEpochs = grow(pendingEpochs, pendingCount);
+		}
+		pendingValues[pendingCount] = value;
+		pendingEpochs[pendingCount] = epoch;
+		pendingLabels.addElement(label);
+	}
+
+	/**
+	 * Remaps all the pending labels and jump targets at once: the shifts
+	 * are composed (from the last one back to the oldest pending epoch)
+	 * into a piecewise old-to-new index map, and each entry is mapped as
+	 * soon as the map covers its epoch.
+	 */
+	void commit(OpCodeArray opCodes) {
+		int pendingCount = pendingLabels.size();
+		int[] order = sortPendingByEpoch(pendingCount);
+		mapStarts = new int[] { Integer.MIN_VALUE };
+		mapIncs = new int[] { 0 };
+		mapSize = 1;
+		int epoch = count;
+		for (int i = 0; i < pendingCount; i++) {
+			int k = order[i];
+			while (pendingEpochs[k] < epoch) {
+				epoch--;
+				prependShift(startIndices[epoch], incValues[epoch]);
+			}
+			CodeAbsLabel label = (CodeAbsLabel) pendingLabels.elementAt(k);
+			if (label != null) {
+				label.setCommittedIndex(mapIndex(pendingValues[k]));
+			} else {
+				int opIndex = pendingValues[k];
+				opCodes.setTargetIndex(opIndex, mapIndex(opCodes
+						.getArg(opIndex)));
+			}
+		}
+		pendingLabels.setSize(0);
+		mapStarts = null;
+		mapIncs = null;
+		committedCount = count;
+		isCommitting = false;
+	}
+
+	private int[] sortPendingByEpoch(int pendingCount) {
+		int[] positions = new int[count + 1];
+		for (int i = 0; i < pendingCount; i++) {
+			positions[count - pendingEpochs[i]]++;
+		}
+		for (int j = 1; j <= count; j++) {
+			positions[j] += positions[j - 1];
+		}
+		int[] order = new int[pendingCount];
+		for (int i = 0; i < pendingCount; i++) {
+			order[positions[count - 1 - pendingEpochs[i]]++] = i;
+		}
+		return order;
+	}
+
+	private void prependShift(int startIndex, int incValue) {
+		int[] newStarts = new int[(mapSize << 1) + 1];
+		int[] newIncs = new int[newStarts.length];
+		int newSize = 0;
+		while (newSize < mapSize && mapStarts[newSize] < startIndex) {
+			newStarts[newSize] = mapStarts[newSize];
+			newIncs[newSize] = mapIncs[newSize];
+			newSize++;
+		}
+		int j = findMapPiece(startIndex + incValue);
+		newSize = addMapPiece(newStarts, newIncs, newSize, startIndex,
+				mapIncs[j] + incValue);
+		while (++j < mapSize) {
+			newSize = addMapPiece(newStarts, newIncs, newSize, mapStarts[j]
+					- incValue, mapIncs[j] + incValue);
+		}
+		mapStarts = newStarts;
+		mapIncs = newIncs;
+		mapSize = newSize;
+	}
+
+	private static int addMapPiece(int[] starts, int[] incs, int size,
+			int start, int inc) {
+		if (incs[size - 1] != inc) {
+			starts[size] = start;
+			incs[size++] = inc;
+		}
+		return size;
+	}
+
+	private int findMapPiece(int index) {
+		int low = 0;
+		int high = mapSize - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (mapStarts[mid] <= index) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	private int mapIndex(int index) {
+		return index + mapIncs[findMapPiece(index)];
+	}
+}
@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class ConstClassStringContent extends ConstPoolContent {
 
@@ -49,12 +47,12 @@ final class ConstClassStringContent extends ConstPoolContent {
 		this.name = name;
 	}
 
-	ConstClassStringContent(InputStream in, ClassFile classFile)
+	ConstClassStringContent(ClassInputBuffer in, ClassFile classFile)
 			throws IOException {
 		name = new ConstantRef(in, classFile, false);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		name.writeTo(out);
 	}
 
@@ -63,6 +61,10 @@ final class ConstClassStringContent extends ConstPoolContent {
 				&& name.isEqualTo(((ConstClassStringContent) other).name);
 	}
 
+	int hashValue() {
+		return name.hashValue();
+	}
+
 	ConstantRef classOrName() {
 		return name;
 	}
@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class ConstFieldMethodNameType extends ConstPoolContent {
 
@@ -52,13 +50,13 @@ final class ConstFieldMethodNameType extends ConstPoolContent {
 		this.descriptor = descriptor;
 	}
 
-	ConstFieldMethodNameType(InputStream in, ClassFile classFile)
+	ConstFieldMethodNameType(ClassInputBuffer in, ClassFile classFile)
 			throws IOException {
 		classOrName = new ConstantRef(in, classFile, false);
 		descriptor = new ConstantRef(in, classFile, false);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		classOrName.writeTo(out);
 		descriptor.writeTo(out);
 	}
@@ -71,6 +69,10 @@ final class ConstFieldMethodNameType extends ConstPoolContent {
 				&& descriptor.isEqualTo(otherContent.descriptor);
 	}
 
+	int hashValue() {
+		return classOrName.hashValue() * 31 + descriptor.hashValue();
+	}
+
 	ConstantRef classOrName() {
 		return classOrName;
 	}
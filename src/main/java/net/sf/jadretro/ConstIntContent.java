@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class ConstIntContent extends ConstPoolContent {
 
@@ -49,11 +47,11 @@ final class ConstIntContent extends ConstPoolContent {
 		this.value = value;
 	}
 
-	ConstIntContent(InputStream in) throws IOException {
+	ConstIntContent(ClassInputBuffer in) throws IOException {
 		value = readInt(in);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		writeInt(out, value);
 	}
 
@@ -61,4 +59,8 @@ final class ConstIntContent extends ConstPoolContent {
 		return other instanceof ConstIntContent
 				&& ((ConstIntContent) other).value == value;
 	}
+
+	int hashValue() {
+		return value;
+	}
 }
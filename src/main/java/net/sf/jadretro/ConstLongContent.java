@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class ConstLongContent extends ConstPoolContent {
 
@@ -47,12 +45,12 @@ final class ConstLongContent extends ConstPoolContent {
 
 	private/* final */int lowValue;
 
-	ConstLongContent(InputStream in) throws IOException {
+	ConstLongContent(ClassInputBuffer in) throws IOException {
 		highValue = readInt(in);
 		lowValue = readInt(in);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		writeInt(out, highValue);
 		writeInt(out, lowValue);
 	}
@@ -64,4 +62,8 @@ final class ConstLongContent extends ConstPoolContent {
 		return otherContent.highValue == highValue
 				&& otherContent.lowValue == lowValue;
 	}
+
+	int hashValue() {
+		return highValue ^ lowValue;
+	}
 }
@@ -41,6 +41,8 @@ abstract class ConstPoolContent extends ClassEntity {
 
 	abstract boolean isEqualTo(ConstPoolContent other);
 
+	abstract int hashValue();
+
 	ConstantRef classOrName() throws BadClassFileException {
 		throw new BadClassFileException();
 	}
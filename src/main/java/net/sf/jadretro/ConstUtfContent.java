@@ -37,26 +37,56 @@
 
 package net.sf.jadretro;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.UTFDataFormatException;
 
 final class ConstUtfContent extends ConstPoolContent {
 
 	private/* final */String value;
 
+	private byte[] encoded;
+
 	ConstUtfContent(String value) {
 		this.value = value;
 	}
 
-	ConstUtfContent(InputStream in) throws IOException {
-		value = readUTF(in);
+	private ConstUtfContent(String value, byte[] encoded) {
+		this.value = value;
+		this.encoded = encoded;
 	}
 
-	void writeTo(OutputStream out) throws IOException {
-		writeUTF(out, value);
+	static ConstUtfContent decode(ClassInputBuffer in) throws IOException {
+		int len = in.readUnsignedShort();
+		return UtfInternCache.intern(in.array(), in.readSlice(len), len);
+	}
+
+	static ConstUtfContent decode(byte[] bytes, int ofs, int len)
+			throws UTFDataFormatException {
+		byte[] encoded = new byte[len];
+		System.arraycopy(bytes, ofs, encoded, 0, len);
+		String value = decodeUTF(encoded, 0, len);
+		if (value == null)
+			throw new UTFDataFormatException();
+		return new ConstUtfContent(value, encoded);
+	}
+
+	boolean isEncodedAs(byte[] bytes, int ofs, int len) {
+		byte[] encoded = this.encoded;
+		if (encoded.length != len)
+			return false;
+		for (int i = 0; i < len; i++) {
+			if (encoded[i] != bytes[ofs + i])
+				return false;
+		}
+		return true;
+	}
+
+	void writeTo(ClassOutputBuffer out) throws IOException {
+		if (encoded == null) {
+			encoded = encodeUTF(value);
+		}
+		writeShort(out, encoded.length);
+		out.write(encoded);
 	}
 
 	boolean isEqualTo(ConstPoolContent other) {
@@ -64,73 +94,98 @@ final class ConstUtfContent extends ConstPoolContent {
 				&& value.equals(((ConstUtfContent) other).value);
 	}
 
+	int hashValue() {
+		return value.hashCode();
+	}
+
 	String utfValue() {
 		return value;
 	}
 
-	private static String readUTF(InputStream in) throws IOException {
-		byte[] bytes = new byte[readUnsignedShort(in)];
-		readFully(in, bytes);
-		String str = decodeUTF(bytes);
-		if (str == null)
-			throw new UTFDataFormatException();
-		return str;
+	static boolean isValidUTF(byte[] bytes, int ofs, int len) {
+		return decodeChars(bytes, ofs, len, null) >= 0;
 	}
 
-	private static String decodeUTF(byte[] bytes) {
-		int len = bytes.length;
-		StringBuffer sbuf = new StringBuffer(len);
-		for (int i = 0; i < len; i++) {
-			int c1 = bytes[i];
+	static String decodeUTF(byte[] bytes, int ofs, int len) {
+		char[] chars = new char[len];
+		int count = decodeChars(bytes, ofs, len, chars);
+		return count >= 0 ? new String(chars, 0, count) : null;
+	}
+
+	private static int decodeChars(byte[] bytes, int ofs, int len,
+			char[] chars) {
+		len += ofs;
+		int i = ofs;
+		if (chars != null) {
+			int c1;
+			while (i < len && (c1 = bytes[i]) > 0) {
+				chars[i++ - ofs] = (char) c1;
+			}
+		} else {
+			while (i < len && bytes[i] > 0) {
+				i++;
+			}
+		}
+		int count = i - ofs;
+		while (i < len) {
+			int c1 = bytes[i++];
 			if (c1 <= 0) {
-				if (++i >= len)
-					return null;
-				int c2 = bytes[i];
+				if (i >= len)
+					return -1;
+				int c2 = bytes[i++];
 				if ((c2 & 0xc0) != 0x80)
-					return null;
+					return -1;
 				if ((c1 & 0xe0) == 0xc0) {
 					c1 = ((c1 & 0x1f) << 6) | (c2 & 0x3f);
 				} else {
-					if (++i >= len || (c1 & 0xf0) != 0xe0)
-						return null;
-					int c3 = bytes[i];
+					if (i >= len || (c1 & 0xf0) != 0xe0)
+						return -1;
+					int c3 = bytes[i++];
 					if ((c3 & 0xc0) != 0x80)
-						return null;
+						return -1;
 					c1 = (c1 << 12) | ((c2 & 0x3f) << 6) | (c3 & 0x3f);
 				}
 			}
-			sbuf.append((char) c1);
+			if (chars != null) {
+				chars[count] = (char) c1;
+			}
+			count++;
 		}
-		return sbuf.toString();
-	}
-
-	private static void writeUTF(OutputStream out, String str)
-			throws IOException {
-		int count = str.length();
-		ByteArrayOutputStream baos = new ByteArrayOutputStream((count >> 1)
-				+ count + 16);
-		encodeUTF(baos, str);
-		int len = baos.size();
-		if (len > 0xffff)
-			throw new UTFDataFormatException();
-		writeShort(out, len);
-		baos.writeTo(out);
+		return count;
 	}
 
-	private static void encodeUTF(ByteArrayOutputStream baos, String str) {
+	private static byte[] encodeUTF(String str) throws UTFDataFormatException {
 		int count = str.length();
+		int len = count;
 		for (int i = 0; i < count; i++) {
 			int c1 = str.charAt(i);
 			if (c1 == 0 || c1 > 0x7f) {
-				if (c1 > 0x7ff) {
-					baos.write((c1 >> 12) | 0xe0);
-					baos.write(((c1 >> 6) & 0x3f) | 0x80);
-				} else {
-					baos.write((c1 >> 6) | 0xc0);
+				len += c1 > 0x7ff ? 2 : 1;
+			}
+		}
+		if (len > 0xffff)
+			throw new UTFDataFormatException();
+		byte[] bytes = new byte[len];
+		if (len == count) {
+			for (int i = 0; i < count; i++) {
+				bytes[i] = (byte) str.charAt(i);
+			}
+		} else {
+			int pos = 0;
+			for (int i = 0; i < count; i++) {
+				int c1 = str.charAt(i);
+				if (c1 == 0 || c1 > 0x7f) {
+					if (c1 > 0x7ff) {
+						bytes[pos++] = (byte) ((c1 >> 12) | 0xe0);
+						bytes[pos++] = (byte) (((c1 >> 6) & 0x3f) | 0x80);
+					} else {
+						bytes[pos++] = (byte) ((c1 >> 6) | 0xc0);
+					}
+					c1 = (c1 & 0x3f) | 0x80;
 				}
-				c1 = (c1 & 0x3f) | 0x80;
+				bytes[pos++] = (byte) c1;
 			}
-			baos.write(c1);
 		}
+		return bytes;
 	}
 }
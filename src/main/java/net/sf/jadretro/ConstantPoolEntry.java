@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class ConstantPoolEntry extends ClassEntity {
 
@@ -77,12 +75,13 @@ final class ConstantPoolEntry extends ClassEntity {
 		this.content = content;
 	}
 
-	ConstantPoolEntry(InputStream in, ClassFile classFile) throws IOException {
+	ConstantPoolEntry(ClassInputBuffer in, ClassFile classFile)
+			throws IOException {
 		tag = readUnsignedByte(in);
 		content = decodeContent(in, tag, classFile);
 	}
 
-	private static ConstPoolContent decodeContent(InputStream in, int tag,
+	private static ConstPoolContent decodeContent(ClassInputBuffer in, int tag,
 			ClassFile classFile) throws IOException {
 		if (tag == CLASS_TAG || tag == STRING_TAG)
 			return new ConstClassStringContent(in, classFile);
@@ -94,7 +93,7 @@ final class ConstantPoolEntry extends ClassEntity {
 		if (tag == LONG_TAG || tag == DOUBLE_TAG)
 			return new ConstLongContent(in);
 		if (tag == UTF8_TAG)
-			return new ConstUtfContent(in);
+			return ConstUtfContent.decode(in);
 		throw new BadClassFileException();
 	}
 
@@ -119,7 +118,7 @@ final class ConstantPoolEntry extends ClassEntity {
 		return new ConstantPoolEntry(UTF8_TAG, new ConstUtfContent(value));
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		out.write(tag);
 		content.writeTo(out);
 	}
@@ -128,10 +127,23 @@ final class ConstantPoolEntry extends ClassEntity {
 		return other.tag == tag && content.isEqualTo(other.content);
 	}
 
+	public boolean equals(Object obj) {
+		return obj instanceof ConstantPoolEntry
+				&& isEqualTo((ConstantPoolEntry) obj);
+	}
+
+	public int hashCode() {
+		return content.hashValue() * 31 + tag;
+	}
+
 	boolean isClassConst() {
 		return tag == CLASS_TAG;
 	}
 
+	boolean isIfaceMethodConst() {
+		return tag == IFACEMETHOD_TAG;
+	}
+
 	boolean isLongOrDouble() {
 		return tag == LONG_TAG || tag == DOUBLE_TAG;
 	}
@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class ConstantRef extends ClassEntity {
 
@@ -52,7 +50,7 @@ final class ConstantRef extends ClassEntity {
 		this.classFile = classFile;
 	}
 
-	ConstantRef(InputStream in, ClassFile classFile, boolean isZeroAllowed)
+	ConstantRef(ClassInputBuffer in, ClassFile classFile, boolean isZeroAllowed)
 			throws IOException {
 		this.classFile = classFile;
 		index = readUnsignedShort(in);
@@ -61,7 +59,7 @@ final class ConstantRef extends ClassEntity {
 			throw new BadClassFileException();
 	}
 
-	static ConstantRef readAsByteFrom(InputStream in, ClassFile classFile)
+	static ConstantRef readAsByteFrom(ClassInputBuffer in, ClassFile classFile)
 			throws IOException {
 		int index = readUnsignedByte(in);
 		if (index == 0 || classFile.getConstantPoolCount() <= index)
@@ -69,17 +67,21 @@ final class ConstantRef extends ClassEntity {
 		return new ConstantRef(index, classFile);
 	}
 
+	int getIndex() {
+		return index;
+	}
+
 	boolean isWide() {
 		return (index & ~0xff) != 0;
 	}
 
-	void writeAsByteTo(OutputStream out) throws IOException {
+	void writeAsByteTo(ClassOutputBuffer out) throws IOException {
 		if (isWide())
 			throw new ClassOverflowException();
 		out.write(index);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		writeShort(out, index);
 	}
 
@@ -91,6 +93,10 @@ final class ConstantRef extends ClassEntity {
 		return getConstantEntry().isClassConst();
 	}
 
+	boolean isIfaceMethodConst() {
+		return getConstantEntry().isIfaceMethodConst();
+	}
+
 	ConstantRef classOrName() throws BadClassFileException {
 		return getConstantEntry().content().classOrName();
 	}
@@ -103,6 +109,10 @@ final class ConstantRef extends ClassEntity {
 		return getConstantEntry().content().utfValue();
 	}
 
+	DescriptorInfo descriptorInfo() throws BadClassFileException {
+		return classFile.getDescriptorInfoAt(index);
+	}
+
 	String getEntityClassNameValue() throws BadClassFileException {
 		return classOrName().classOrName().utfValue();
 	}
@@ -114,4 +124,8 @@ final class ConstantRef extends ClassEntity {
 	boolean isEqualTo(ConstantRef other) {
 		return other.index == index;
 	}
+
+	int hashValue() {
+		return index;
+	}
 }
@@ -0,0 +1,152 @@
+/*
+ * @(#) net/sf/jadretro/DescriptorInfo.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+final class DescriptorInfo {
+
+	private/* final */String value;
+
+	private/* final */int argSlots;
+
+	private/* final */int[] locClassSpans;
+
+	private String adjustedValue;
+
+	private boolean isAdjusted;
+
+	DescriptorInfo(String value) {
+		this.value = value;
+		argSlots = parseArgSlots(value);
+		locClassSpans = findLocClassSpans(value);
+	}
+
+	private static int parseArgSlots(String value) {
+		int endPos = value.lastIndexOf(')');
+		if (endPos <= 0 || value.charAt(0) != '(')
+			return -1;
+		int argSlots = 0;
+		for (int pos = 1; pos < endPos; pos++) {
+			char ch = value.charAt(pos);
+			argSlots++;
+			if (ch == 'D' || ch == 'J') {
+				argSlots++;
+			} else {
+				while (ch == '[') {
+					ch = value.charAt(++pos);
+				}
+				if (ch == 'L') {
+					pos = value.indexOf(';', pos + 1);
+					if (pos < 0 || pos >= endPos)
+						return -1;
+				}
+			}
+		}
+		return argSlots;
+	}
+
+	private static int[] findLocClassSpans(String value) {
+		int[] spans = null;
+		int count = 0;
+		int pos = -1;
+		while ((pos = value.indexOf('L', pos + 1)) >= 0) {
+			int startPos = pos + 1;
+			pos = value.indexOf(';', startPos);
+			if (pos < 0)
+				break;
+			int dollarPos = value.indexOf('$', startPos);
+			if (dollarPos >= 0 && dollarPos < pos) {
+				if (spans == null || spans.length == count) {
+					int[] newSpans = new int[count + 4];
+					if (spans != null) {
+						System.arraycopy(spans, 0, newSpans, 0, count);
+					}
+					spans = newSpans;
+				}
+				spans[count++] = startPos;
+				spans[count++] = pos;
+			}
+		}
+		if (spans != null && spans.length != count) {
+			int[] newSpans = new int[count];
+			System.arraycopy(spans, 0, newSpans, 0, count);
+			spans = newSpans;
+		}
+		return spans;
+	}
+
+	int getArgSlotsCount() throws BadClassFileException {
+		if (argSlots < 0)
+			throw new BadClassFileException();
+		return argSlots;
+	}
+
+	boolean isVoidRetType() throws BadClassFileException {
+		int len = value.length();
+		if (len <= 2)
+			throw new BadClassFileException();
+		return value.charAt(len - 1) == 'V' && value.charAt(len - 2) == ')';
+	}
+
+	String adjustLocClassNames() {
+		if (!isAdjusted) {
+			isAdjusted = true;
+			int[] spans = locClassSpans;
+			if (spans != null) {
+				StringBuffer sbuf = null;
+				int lastPos = 0;
+				for (int i = 0; i < spans.length; i += 2) {
+					String className = Main.adjustLocalClassName(value
+							.substring(spans[i], spans[i + 1]));
+					if (className != null) {
+						if (sbuf == null) {
+							sbuf = new StringBuffer(value.length() + 4);
+						}
+						sbuf.append(value.substring(lastPos, spans[i]));
+						sbuf.append(className);
+						lastPos = spans[i + 1];
+					}
+				}
+				if (sbuf != null) {
+					sbuf.append(value.substring(lastPos));
+					adjustedValue = sbuf.toString();
+				}
+			}
+		}
+		return adjustedValue;
+	}
+}
@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class ExceptionCatch extends ClassLabeledEntity {
 
@@ -59,7 +57,8 @@ final class ExceptionCatch extends ClassLabeledEntity {
 		this.catchType = catchType;
 	}
 
-	ExceptionCatch(InputStream in, ClassFile classFile) throws IOException {
+	ExceptionCatch(ClassInputBuffer in, ClassFile classFile)
+			throws IOException {
 		start = new CodeAbsLabel(in, null);
 		end = new CodeAbsLabel(in, null);
 		handler = new CodeAbsLabel(in, null);
@@ -87,10 +86,10 @@ final class ExceptionCatch extends ClassLabeledEntity {
 		return false;
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
-		start.incLabelIndices(startIndex, incValue);
-		end.incLabelIndices(startIndex, incValue);
-		handler.incLabelIndices(startIndex, incValue);
+	void bindLabels(CodeEditLog editLog) {
+		start.bindLabels(editLog);
+		end.bindLabels(editLog);
+		handler.bindLabels(editLog);
 	}
 
 	void rebuildLabelsPc(int[] offsets) {
@@ -99,7 +98,7 @@ final class ExceptionCatch extends ClassLabeledEntity {
 		handler.rebuildLabelsPc(offsets);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		start.writeTo(out);
 		end.writeTo(out);
 		handler.writeTo(out);
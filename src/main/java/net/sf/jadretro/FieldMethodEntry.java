@@ -38,9 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Vector;
 
 final class FieldMethodEntry extends ClassEntity {
 
@@ -50,24 +47,25 @@ final class FieldMethodEntry extends ClassEntity {
 
 	private ConstantRef descriptor;
 
-	private/* final */Vector attributes;
+	private/* final */ObjVector attributes;
 
 	FieldMethodEntry(AccessFlags accessFlags, ConstantRef name,
 			ConstantRef descriptor) {
 		this.accessFlags = accessFlags;
 		this.name = name;
 		this.descriptor = descriptor;
-		attributes = new Vector(2);
+		attributes = new ObjVector(2);
 	}
 
-	FieldMethodEntry(InputStream in, ClassFile classFile) throws IOException {
+	FieldMethodEntry(ClassInputBuffer in, ClassFile classFile)
+			throws IOException {
 		accessFlags = new AccessFlags(in);
 		name = new ConstantRef(in, classFile, false);
 		descriptor = new ConstantRef(in, classFile, false);
 		attributes = readAttributes(in, classFile);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		accessFlags.writeTo(out);
 		name.writeTo(out);
 		descriptor.writeTo(out);
@@ -119,39 +117,11 @@ final class FieldMethodEntry extends ClassEntity {
 	}
 
 	int getArgSlotsCount() throws BadClassFileException {
-		int argSlots = 0;
-		if (!accessFlags.isStatic()) {
-			argSlots++;
-		}
-		String descrValue = descriptor.utfValue();
-		int endPos = descrValue.lastIndexOf(')');
-		if (endPos <= 0 || descrValue.charAt(0) != '(')
-			throw new BadClassFileException();
-		for (int pos = 1; pos < endPos; pos++) {
-			char ch = descrValue.charAt(pos);
-			argSlots++;
-			if (ch == 'D' || ch == 'J') {
-				argSlots++;
-			} else {
-				while (ch == '[') {
-					ch = descrValue.charAt(++pos);
-				}
-				if (ch == 'L') {
-					pos = descrValue.indexOf(';', pos + 1);
-					if (pos < 0 || pos >= endPos)
-						throw new BadClassFileException();
-				}
-			}
-		}
-		return argSlots;
+		int argSlots = descriptor.descriptorInfo().getArgSlotsCount();
+		return accessFlags.isStatic() ? argSlots : argSlots + 1;
 	}
 
 	boolean isVoidRetType() throws BadClassFileException {
-		String descrValue = descriptor.utfValue();
-		int len = descrValue.length();
-		if (len <= 2)
-			throw new BadClassFileException();
-		return descrValue.charAt(len - 1) == 'V'
-				&& descrValue.charAt(len - 2) == ')';
+		return descriptor.descriptorInfo().isVoidRetType();
 	}
 }
@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class InnerClassDesc extends ClassEntity {
 
@@ -51,14 +49,15 @@ final class InnerClassDesc extends ClassEntity {
 
 	private/* final */AccessFlags accessFlags;
 
-	InnerClassDesc(InputStream in, ClassFile classFile) throws IOException {
+	InnerClassDesc(ClassInputBuffer in, ClassFile classFile)
+			throws IOException {
 		innerClass = new ConstantRef(in, classFile, true);
 		outerClass = new ConstantRef(in, classFile, true);
 		innerName = new ConstantRef(in, classFile, true);
 		accessFlags = new AccessFlags(in);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		innerClass.writeTo(out);
 		outerClass.writeTo(out);
 		innerName.writeTo(out);
@@ -0,0 +1,105 @@
+/*
+ * @(#) net/sf/jadretro/JobQueue.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+final class JobQueue {
+
+	private/* final */Runnable[] jobs;
+
+	private int head;
+
+	private int count;
+
+	private boolean isClosed;
+
+	JobQueue(int capacity) {
+		jobs = new Runnable[capacity > 0 ? capacity : 1];
+	}
+
+	synchronized void put(Runnable job) {
+		while (count == jobs.length && !isClosed) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+			}
+		}
+		if (!isClosed) {
+			int tail = head + count;
+			jobs[tail < jobs.length ? tail : tail - jobs.length] = job;
+			count++;
+			notifyAll();
+		}
+	}
+
+	synchronized Runnable take() {
+		while (count == 0 && !isClosed) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+			}
+		}
+		if (count == 0)
+			return null;
+		Runnable job = jobs[head];
+		jobs[head] = null;
+		if (++head == jobs.length) {
+			head = 0;
+		}
+		count--;
+		notifyAll();
+		return job;
+	}
+
+	synchronized void close() {
+		while (count > 0) {
+			jobs[head] = null;
+			if (++head == jobs.length) {
+				head = 0;
+			}
+			count--;
+		}
+		isClosed = true;
+		notifyAll();
+	}
+
+	void startWorkers(int threadsCount) {
+		while (threadsCount-- > 0) {
+			new JobWorker(this).start();
+		}
+	}
+}
@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class LineNumberDesc extends ClassLabeledEntity {
 
@@ -47,7 +45,7 @@ final class LineNumberDesc extends ClassLabeledEntity {
 
 	private/* final */int lineNumber;
 
-	LineNumberDesc(InputStream in) throws IOException {
+	LineNumberDesc(ClassInputBuffer in) throws IOException {
 		start = new CodeAbsLabel(in, null);
 		lineNumber = readUnsignedShort(in);
 	}
@@ -60,15 +58,15 @@ final class LineNumberDesc extends ClassLabeledEntity {
 		return start.isInRange(startIndex, endIndex);
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
-		start.incLabelIndices(startIndex, incValue);
+	void bindLabels(CodeEditLog editLog) {
+		start.bindLabels(editLog);
 	}
 
 	void rebuildLabelsPc(int[] offsets) {
 		start.rebuildLabelsPc(offsets);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		start.writeTo(out);
 		writeShort(out, lineNumber);
 	}
@@ -38,8 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 final class LocalVariableDesc extends ClassLabeledEntity {
 
@@ -53,7 +51,8 @@ final class LocalVariableDesc extends ClassLabeledEntity {
 
 	private/* final */int index;
 
-	LocalVariableDesc(InputStream in, ClassFile classFile) throws IOException {
+	LocalVariableDesc(ClassInputBuffer in, ClassFile classFile)
+			throws IOException {
 		start = new CodeAbsLabel(in, null);
 		end = new CodeAbsLabel(in, start);
 		name = new ConstantRef(in, classFile, false);
@@ -77,9 +76,9 @@ final class LocalVariableDesc extends ClassLabeledEntity {
 		return false;
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
-		start.incLabelIndices(startIndex, incValue);
-		end.incLabelIndices(startIndex, incValue);
+	void bindLabels(CodeEditLog editLog) {
+		start.bindLabels(editLog);
+		end.bindLabels(editLog);
 	}
 
 	void rebuildLabelsPc(int[] offsets) {
@@ -87,7 +86,7 @@ final class LocalVariableDesc extends ClassLabeledEntity {
 		end.rebuildLabelsPc(offsets);
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		start.writeTo(out);
 		end.writeRelTo(out, start);
 		name.writeTo(out);
@@ -55,23 +55,34 @@
 
 package net.sf.jadretro;
 
-import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Hashtable;
+import java.util.Vector;
 
 public final class Main {
 
+	static final String VERSION = "1.7";
+
+	// Increment it whenever the transformation output changes (e.g., a fix
+	// pass is added or altered) to invalidate the cached results, and to
+	// make the running server of the previous build reject the requests.
+	static final int BUILD_REVISION = 1;
+
+	static final String BUILD_ID = VERSION + "-" + BUILD_REVISION;
+
 	private Main() {
 	}
 
 	private static void showHelp() {
-		System.out.println("JadRetro v1.6.1 - a Java decompiler helper");
+		System.out.println("JadRetro v" + VERSION
+				+ " - a Java decompiler helper");
 		System.out
 				.println("Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>");
 		System.out
@@ -88,6 +99,16 @@ public final class Main {
 		System.out.println(" -d <directory> "
 				+ " Specify output base folder for the modified class files");
 		System.out.println(" -q " + " Reduce the verbosity of the output");
+		System.out.println(" -j <threads> "
+				+ " Transform classes using the specified number of threads");
+		System.out.println(" -p <depth> "
+				+ " Read, transform and write classes in a pipeline");
+		System.out.println(" -i "
+				+ " Skip the files unchanged since the previous run (with -d)");
+		System.out.println(" -k <directory> "
+				+ " Cache the transformed classes in the specified folder");
+		System.out.println(" -server "
+				+ " Run as a server for the subsequent invocations");
 		System.out.println("");
 		System.out
 				.println(" "
@@ -116,20 +137,48 @@ public final class Main {
 		if (args.length == 0 || args[0].equals("-h") || args[0].equals("-help")) {
 			showHelp();
 		} else {
-			int res = intMain(args);
+			int res;
+			Daemon daemon = loadDaemon();
+			if (args.length == 1 && args[0].equals("-server")) {
+				if (daemon != null) {
+					res = daemon.serve();
+				} else {
+					System.err.println("Error: cannot start server");
+					res = 9;
+				}
+			} else if (daemon == null || (res = daemon.forward(args)) < 0) {
+				res = intMain(args, null);
+			}
 			if (res != 0) {
 				System.exit(res);
 			}
 		}
 	}
 
-	private static int intMain(String args[]) {
+	private static Daemon loadDaemon() {
+		try {
+			return (Daemon) Class.forName("net.sf.jadretro.SocketDaemon")
+					.newInstance();
+		} catch (ClassNotFoundException e) {
+		} catch (InstantiationException e) {
+		} catch (IllegalAccessException e) {
+		} catch (LinkageError e) {
+			// Not supported by the JavaVM.
+		}
+		return null;
+	}
+
+	static int intMain(String args[], File baseDir) {
 		int i = 0;
 		boolean keepBridgeMethods = false;
 		boolean noAdjLocClassNames = false;
 		boolean setOldVer = false;
 		File outdir = null;
+		File cacheDir = null;
 		boolean loud = true;
+		int threadsCount = 0;
+		int pipelineDepth = 0;
+		boolean incremental = false;
 		do {
 			if (args[i].equals("-b")) {
 				keepBridgeMethods = true;
@@ -139,165 +188,184 @@ public final class Main {
 				setOldVer = true;
 			} else if (args[i].equals("-q")) {
 				loud = false;
+			} else if (args[i].equals("-i")) {
+				incremental = true;
+			} else if (args[i].equals("-j")) {
+				if (args.length - 1 == i || threadsCount > 0
+						|| (threadsCount = decodeCount(args[i + 1])) <= 0)
+					break;
+				i++;
+			} else if (args[i].equals("-k")) {
+				if (args.length - 1 == i || cacheDir != null)
+					break;
+				cacheDir = resolveFile(args[++i], baseDir);
+			} else if (args[i].equals("-p")) {
+				if (args.length - 1 == i || pipelineDepth > 0
+						|| (pipelineDepth = decodeCount(args[i + 1])) <= 0)
+					break;
+				i++;
 			} else {
 				if (!args[i].equals("-d") || args.length - 1 == i
 						|| outdir != null)
 					break;
-				outdir = new File(args[++i]);
+				outdir = resolveFile(args[++i], baseDir);
 			}
 		} while (++i < args.length);
-		Hashtable filePathSet = new Hashtable();
 		Hashtable classNameSet = outdir != null ? new Hashtable() : null;
+		Hashtable archiveNameSet = new Hashtable();
+		OutputManifest manifest = null;
+		if (incremental && outdir != null) {
+			manifest = OutputManifest.load(outdir, BUILD_ID + " "
+					+ (keepBridgeMethods ? "-b " : "")
+					+ (noAdjLocClassNames ? "-l " : "")
+					+ (setOldVer ? "-c" : ""));
+		}
+		TransformCache cache = null;
+		if (cacheDir != null) {
+			cache = new TransformCache(cacheDir, new TransformOptions(
+					keepBridgeMethods, noAdjLocClassNames, setOldVer));
+		}
+		JobQueue queue = null;
+		JobQueue readQueue = null;
+		int pendingLimit = 1;
+		if (pipelineDepth > 0) {
+			int workersCount = threadsCount > 1 ? threadsCount : 1;
+			pendingLimit = (pipelineDepth << 1) + workersCount;
+			queue = new JobQueue(pipelineDepth);
+			queue.startWorkers(workersCount);
+			readQueue = new JobQueue(pipelineDepth);
+			readQueue.startWorkers(1);
+		} else if (threadsCount > 1) {
+			pendingLimit = threadsCount << 2;
+			queue = new JobQueue(pendingLimit);
+			queue.startWorkers(threadsCount);
+		}
+		Vector pendingJobs = new Vector(pendingLimit);
 		int classesCount = 0;
-		File outfile = null;
+		String[] pathRef = new String[1];
+		File[] outfileRef = new File[1];
+		if (baseDir != null) {
+			String[] paths = new String[args.length];
+			for (int j = i; j < args.length; j++) {
+				paths[j] = resolveFile(args[j], baseDir).getPath();
+			}
+			args = paths;
+		}
+		PathWalker walker = new PathWalker(args, i);
+		String badDirPath = null;
 		try {
-			while (i < args.length) {
-				File infile = new File(args[i]);
-				if (filePathSet.put(infile.getPath(), "") == null) {
-					if (infile.isDirectory()) {
-						String[] list = infile.list();
-						if (list == null)
+			String path;
+			while ((path = walker.next()) != null) {
+				pathRef[0] = path;
+				File infile = new File(path);
+				boolean isDirectory = infile.isDirectory();
+				if (walker.isFirstVisit(infile, isDirectory)) {
+					if (isDirectory) {
+						if (mayContainOutput(infile, outdir)) {
+							flushJobs(pendingJobs, 0, outdir, classNameSet,
+									manifest, loud, pathRef, outfileRef);
+							pathRef[0] = path;
+						}
+						if (!walker.enter(infile)) {
+							badDirPath = path;
 							break;
-						i++;
-						if (list.length > i) {
-							String[] newArgs = new String[list.length
-									+ args.length - i];
-							System.arraycopy(args, i, newArgs, list.length,
-									args.length - i);
-							args = newArgs;
-							i = 0;
-						} else {
-							i -= list.length;
 						}
-						for (int j = 0; j < list.length; j++) {
-							args[i + j] = (new File(infile, list[j])).getPath();
+					} else if (path.endsWith(".class")
+							|| path.endsWith(".CLA")) {
+						classesCount++;
+						ClassTransformJob job = new ClassTransformJob(infile,
+								path, keepBridgeMethods, noAdjLocClassNames,
+								setOldVer);
+						job.setCache(cache);
+						ManifestEntry entry = null;
+						if (manifest != null) {
+							ManifestEntry stamp = new ManifestEntry(infile);
+							entry = manifest.lookup(stamp);
+							job.setManifestEntry(stamp);
 						}
-						i--;
-					} else {
-						FileInputStream in = new FileInputStream(infile);
-						if (args[i].endsWith(".class")
-								|| args[i].endsWith(".CLA")) {
-							classesCount++;
-							ClassFile classFile = new ClassFile(
-									new BufferedInputStream(in));
-							in.close();
-							boolean isUniqueName = false;
-							String className = classFile.className();
-							if (classNameSet == null
-									|| classNameSet.put(className, "") == null) {
-								isUniqueName = true;
-							}
-							boolean isChanged = false;
-							boolean isNewClassName = false;
-							if (!noAdjLocClassNames
-									&& fixLocalClassNames(classFile)) {
-								isChanged = true;
-								String newClassName = classFile.className();
-								if (!newClassName.equals(className)) {
-									isNewClassName = true;
-									className = newClassName;
-									if (isUniqueName
-											&& classNameSet != null
-											&& classNameSet.get(className) != null) {
-										isUniqueName = false;
-									}
-								}
-							}
-							if ((!isNewClassName || isUniqueName)
-									&& (process(classFile, setOldVer,
-											keepBridgeMethods) || isChanged)) {
-								if (isUniqueName) {
-									outfile = infile;
-									if (outdir != null) {
-										outfile = new File(outdir,
-												className.replace('/',
-														File.separatorChar)
-														+ ".class");
-									} else if (isNewClassName) {
-										String inFilePath = infile.getPath();
-										int dotExtPos = inFilePath
-												.lastIndexOf('.');
-										if (inFilePath
-												.lastIndexOf(File.separatorChar) >= dotExtPos) {
-											dotExtPos = inFilePath.length();
-										}
-										String parent = infile.getParent();
-										outfile = new File(
-												parent != null ? new File(
-														parent) : new File(
-														infile, ".."),
-												className.substring(className
-														.lastIndexOf('/') + 1)
-														+ inFilePath
-																.substring(dotExtPos));
-									}
-									String dottedClassName = className.replace(
-											'/', '.');
-									try {
-										ByteArrayOutputStream baos = new ByteArrayOutputStream();
-										classFile.writeTo(baos);
-										if (loud) {
-											System.out
-													.println("Class transformed: "
-															+ dottedClassName);
-										}
-										String parent = outfile.getParent();
-										if (parent != null) {
-											(new File(parent)).mkdirs();
-										}
-										FileOutputStream out = new FileOutputStream(
-												outfile);
-										baos.writeTo(out);
-										out.close();
-										if (isNewClassName && outdir == null
-												&& !infile.equals(outfile)) {
-											infile.delete();
-										}
-									} catch (ClassOverflowException e) {
-										System.err
-												.println("Too big class ignored: "
-														+ dottedClassName);
-									}
-									outfile = null;
-								} else {
-									System.err
-											.println("Duplicate class file ignored: "
-													+ args[i]);
-								}
-							}
+						if (entry != null) {
+							job.restore(entry);
+						} else if (readQueue != null) {
+							job.pipeTo(queue);
+							readQueue.put(job);
+						} else if (queue != null) {
+							queue.put(job);
 						} else {
-							in.close();
-							System.err.println("Ignoring file: " + args[i]);
+							job.run();
 						}
+						pendingJobs.addElement(job);
+						flushJobs(pendingJobs, pendingLimit - 1, outdir,
+								classNameSet, manifest, loud, pathRef,
+								outfileRef);
+					} else if (isArchiveFileName(path)) {
+						flushJobs(pendingJobs, 0, outdir, classNameSet,
+								manifest, loud, pathRef, outfileRef);
+						pathRef[0] = path;
+						if (outdir == null
+								|| archiveNameSet.put(infile.getName(), "") == null) {
+							classesCount += transformArchive(infile, path,
+									keepBridgeMethods, noAdjLocClassNames,
+									setOldVer, cache, queue, pendingJobs,
+									pendingLimit, outdir, manifest, loud,
+									pathRef, outfileRef);
+						} else {
+							System.err
+									.println("Duplicate archive file ignored: "
+											+ path);
+						}
+					} else if (manifest == null
+							|| !manifest.isManifestFile(infile)) {
+						flushJobs(pendingJobs, 0, outdir, classNameSet,
+								manifest, loud, pathRef, outfileRef);
+						pathRef[0] = path;
+						FileInputStream in = new FileInputStream(infile);
+						in.close();
+						System.err.println("Ignoring file: " + path);
 					}
 				}
-				i++;
+			}
+			flushJobs(pendingJobs, 0, outdir, classNameSet, manifest, loud,
+					pathRef, outfileRef);
+			if (manifest != null) {
+				outfileRef[0] = manifest.file();
+				manifest.store();
+				outfileRef[0] = null;
 			}
 		} catch (FileNotFoundException e) {
-			if (outfile != null) {
+			if (outfileRef[0] != null) {
 				System.err.println("Error: cannot open file for writing: "
-						+ outfile.getPath());
+						+ outfileRef[0].getPath());
 				return 6;
 			}
-			System.err.println("Error: file not found: " + args[i]);
+			System.err.println("Error: file not found: " + pathRef[0]);
 			return 2;
 		} catch (BadClassFileException e) {
-			System.err.println("Error: invalid class file: " + args[i]);
+			System.err.println("Error: invalid class file: " + pathRef[0]);
 			return 5;
+		} catch (BadArchiveFileException e) {
+			System.err.println("Error: invalid archive file: " + pathRef[0]);
+			return 8;
 		} catch (EOFException e) {
-			System.err.println("Error: unexpected end of file: " + args[i]);
+			System.err.println("Error: unexpected end of file: " + pathRef[0]);
 			return 4;
 		} catch (IOException e) {
-			if (outfile != null) {
+			if (outfileRef[0] != null) {
 				System.err.println("Error: cannot write file: "
-						+ outfile.getPath());
+						+ outfileRef[0].getPath());
 				return 7;
 			}
-			System.err.println("Error: cannot read file: " + args[i]);
+			System.err.println("Error: cannot read file: " + pathRef[0]);
 			return 3;
+		} finally {
+			if (queue != null) {
+				queue.close();
+			}
+			if (readQueue != null) {
+				readQueue.close();
+			}
 		}
-		if (i < args.length) {
-			System.err.println("Error: cannot list directory: " + args[i]);
+		if (badDirPath != null) {
+			System.err.println("Error: cannot list directory: " + badDirPath);
 			return 1;
 		}
 		if (classesCount != 0) {
@@ -310,7 +378,311 @@ public final class Main {
 		return 0;
 	}
 
-	private static boolean fixLocalClassNames(ClassFile classFile)
+	private static File resolveFile(String path, File baseDir) {
+		File file = new File(path);
+		return baseDir != null && !file.isAbsolute() ? new File(baseDir, path)
+				: file;
+	}
+
+	private static int decodeCount(String str) {
+		int len = str.length();
+		if (len == 0 || len > 6)
+			return -1;
+		int value = 0;
+		for (int i = 0; i < len; i++) {
+			char ch = str.charAt(i);
+			if (!isAsciiDigit(ch))
+				return -1;
+			value = value * 10 + (ch - '0');
+		}
+		return value;
+	}
+
+	private static boolean isArchiveFileName(String path) {
+		return path.endsWith(".jar") || path.endsWith(".zip")
+				|| path.endsWith(".JAR") || path.endsWith(".ZIP");
+	}
+
+	private static boolean mayContainOutput(File dir, File outdir) {
+		if (outdir == null)
+			return false;
+		String dirPath = dir.getAbsolutePath() + File.separator;
+		String outPath = outdir.getAbsolutePath() + File.separator;
+		return dirPath.startsWith(outPath) || outPath.startsWith(dirPath);
+	}
+
+	private static void flushJobs(Vector pendingJobs, int remainCount,
+			File outdir, Hashtable classNameSet, OutputManifest manifest,
+			boolean loud, String[] pathRef, File[] outfileRef)
+			throws IOException {
+		while (pendingJobs.size() > remainCount) {
+			ClassTransformJob job = (ClassTransformJob) pendingJobs
+					.elementAt(0);
+			pathRef[0] = job.path();
+			job.waitDone();
+			File outfile = commitJob(job, outdir, classNameSet, loud,
+					outfileRef);
+			pendingJobs.removeElementAt(0);
+			ManifestEntry entry = job.manifestEntry();
+			if (entry != null) {
+				entry.setResult(1, job.className(), job.newClassName(),
+						job.isChanged());
+				entry.setOutput(outfile);
+				manifest.put(entry);
+			}
+			if (outfile != null) {
+				for (int j = pendingJobs.size() - 1; j >= 0; j--) {
+					ClassTransformJob nextJob = (ClassTransformJob) pendingJobs
+							.elementAt(j);
+					if (outfile.equals(nextJob.infile())) {
+						nextJob.markStale();
+					}
+				}
+			}
+		}
+	}
+
+	private static File commitJob(ClassTransformJob job, File outdir,
+			Hashtable classNameSet, boolean loud, File[] outfileRef)
+			throws IOException {
+		boolean isUniqueName = false;
+		String className = job.className();
+		if (classNameSet == null || classNameSet.put(className, "") == null) {
+			isUniqueName = true;
+		}
+		boolean isNewClassName = false;
+		if (job.newClassName() != null) {
+			isNewClassName = true;
+			className = job.newClassName();
+			if (isUniqueName && classNameSet != null
+					&& classNameSet.get(className) != null) {
+				isUniqueName = false;
+			}
+		}
+		File outfile = null;
+		if ((!isNewClassName || isUniqueName) && job.isChanged()) {
+			if (isUniqueName) {
+				File infile = job.infile();
+				outfile = infile;
+				if (outdir != null) {
+					outfile = new File(outdir, className.replace('/',
+							File.separatorChar) + ".class");
+				} else if (isNewClassName) {
+					String inFilePath = infile.getPath();
+					int dotExtPos = inFilePath.lastIndexOf('.');
+					if (inFilePath.lastIndexOf(File.separatorChar) >= dotExtPos) {
+						dotExtPos = inFilePath.length();
+					}
+					String parent = infile.getParent();
+					outfile = new File(parent != null ? new File(parent)
+							: new File(infile, ".."),
+							className.substring(className.lastIndexOf('/') + 1)
+									+ inFilePath.substring(dotExtPos));
+				}
+				if (job.isRestored()) {
+					if (outfile.getAbsolutePath().equals(
+							job.manifestEntry().outPath()))
+						return outfile;
+					job.markStale();
+					job.waitDone();
+				}
+				String dottedClassName = className.replace('/', '.');
+				ClassOutputBuffer classBytes = job.classBytes();
+				if (classBytes != null) {
+					if (loud) {
+						System.out.println("Class transformed: "
+								+ dottedClassName);
+					}
+					outfileRef[0] = outfile;
+					String parent = outfile.getParent();
+					if (parent != null) {
+						(new File(parent)).mkdirs();
+					}
+					FileOutputStream out = new FileOutputStream(outfile);
+					classBytes.writeTo(out);
+					out.close();
+					if (isNewClassName && outdir == null
+							&& !infile.equals(outfile)) {
+						infile.delete();
+					}
+					outfileRef[0] = null;
+				} else {
+					System.err.println("Too big class ignored: "
+							+ dottedClassName);
+					outfile = null;
+				}
+			} else {
+				System.err.println("Duplicate class file ignored: "
+						+ job.path());
+			}
+		}
+		return outfile;
+	}
+
+	private static int transformArchive(File infile, String path,
+			boolean keepBridgeMethods, boolean noAdjLocClassNames,
+			boolean setOldVer, TransformCache cache, JobQueue queue,
+			Vector pendingJobs, int pendingLimit, File outdir,
+			OutputManifest manifest, boolean loud, String[] pathRef,
+			File[] outfileRef)
+			throws IOException {
+		ManifestEntry stamp = null;
+		if (manifest != null) {
+			stamp = new ManifestEntry(infile);
+			ManifestEntry entry = manifest.lookup(stamp);
+			if (entry != null) {
+				manifest.put(entry);
+				return entry.classesCount();
+			}
+			if (!stamp.hasCrc()) {
+				stamp.setCrc(OutputManifest.crcOf(infile));
+			}
+		}
+		ZipArchive archive = new ZipArchive(infile);
+		int classesCount = 0;
+		try {
+			int count = archive.getEntriesCount();
+			if (archive.isSigned()) {
+				// The classes are counted (as left intact) not to report
+				// that no files are processed.
+				System.err.println("Signed archive ignored: " + path);
+				for (int i = 0; i < count; i++) {
+					if (archive.isTransformable(archive.getEntryAt(i))) {
+						classesCount++;
+					}
+				}
+				return classesCount;
+			}
+			Hashtable entryNameSet = new Hashtable();
+			for (int i = 0; i < count; i++) {
+				entryNameSet.put(archive.getEntryAt(i).name(), "");
+			}
+			boolean isChanged = false;
+			for (int i = 0; i < count; i++) {
+				ZipArchiveEntry entry = archive.getEntryAt(i);
+				if (archive.isTransformable(entry)) {
+					classesCount++;
+					pathRef[0] = path;
+					ClassTransformJob job = new ClassTransformJob(entry,
+							archive.readEntryData(entry), path + "!/"
+									+ entry.name(), keepBridgeMethods,
+							noAdjLocClassNames, setOldVer);
+					job.setCache(cache);
+					if (queue != null) {
+						queue.put(job);
+					} else {
+						job.run();
+					}
+					pendingJobs.addElement(job);
+					if (flushEntryJobs(pendingJobs, pendingLimit - 1,
+							entryNameSet, loud, pathRef)) {
+						isChanged = true;
+					}
+				}
+			}
+			if (flushEntryJobs(pendingJobs, 0, entryNameSet, loud, pathRef)) {
+				isChanged = true;
+			}
+			pathRef[0] = path;
+			File outfile = null;
+			if (isChanged) {
+				outfile = outdir != null ? new File(outdir, infile.getName())
+						: infile;
+				outfileRef[0] = outfile;
+				String parent = outfile.getParent();
+				if (parent != null) {
+					(new File(parent)).mkdirs();
+				}
+				File tmpfile = File.createTempFile(outfile.getName(), ".tmp",
+						outfile.getAbsoluteFile().getParentFile());
+				boolean isWritten = false;
+				try {
+					OutputStream out = new BufferedOutputStream(
+							new FileOutputStream(tmpfile));
+					try {
+						archive.writeTo(out);
+					} finally {
+						out.close();
+					}
+					archive.close();
+					outfile.delete();
+					if (!tmpfile.renameTo(outfile))
+						throw new IOException();
+					isWritten = true;
+				} finally {
+					if (!isWritten) {
+						tmpfile.delete();
+					}
+				}
+				outfileRef[0] = null;
+			}
+			if (stamp != null) {
+				stamp.setResult(classesCount, null, null, isChanged);
+				stamp.setOutput(outfile);
+				manifest.put(stamp);
+			}
+		} finally {
+			archive.close();
+		}
+		return classesCount;
+	}
+
+	private static boolean flushEntryJobs(Vector pendingJobs,
+			int remainCount, Hashtable entryNameSet, boolean loud,
+			String[] pathRef) throws IOException {
+		boolean isChanged = false;
+		while (pendingJobs.size() > remainCount) {
+			ClassTransformJob job = (ClassTransformJob) pendingJobs
+					.elementAt(0);
+			pathRef[0] = job.path();
+			job.waitDone();
+			pendingJobs.removeElementAt(0);
+			if (commitEntryJob(job, entryNameSet, loud)) {
+				isChanged = true;
+			}
+		}
+		return isChanged;
+	}
+
+	private static boolean commitEntryJob(ClassTransformJob job,
+			Hashtable entryNameSet, boolean loud) throws IOException {
+		ZipArchiveEntry entry = job.entry();
+		String className = job.className();
+		String newName = null;
+		if (job.newClassName() != null) {
+			className = job.newClassName();
+			String name = entry.name();
+			newName = name.substring(0, name.lastIndexOf('/') + 1)
+					+ className.substring(className.lastIndexOf('/') + 1)
+					+ ".class";
+			if (newName.equals(name)) {
+				newName = null;
+			} else if (entryNameSet.get(newName) != null) {
+				System.err.println("Duplicate class file ignored: "
+						+ job.path());
+				return false;
+			}
+		}
+		if (!job.isChanged())
+			return false;
+		String dottedClassName = className.replace('/', '.');
+		if (job.classBytes() == null) {
+			System.err.println("Too big class ignored: " + dottedClassName);
+			return false;
+		}
+		if (loud) {
+			System.out.println("Class transformed: " + dottedClassName);
+		}
+		if (newName != null) {
+			entryNameSet.remove(entry.name());
+			entryNameSet.put(newName, "");
+		}
+		entry.replaceWith(newName, job.newEntryData(), job.newEntrySize(),
+				job.newEntryCrc());
+		return true;
+	}
+
+	static boolean fixLocalClassNames(ClassFile classFile)
 			throws BadClassFileException {
 		boolean isChanged = false;
 		for (int i = classFile.getConstantPoolCount() - 1; i > 0; i--) {
@@ -323,8 +695,8 @@ public final class Main {
 					isChanged = true;
 				}
 			} else if (entry.isNameAndType()) {
-				String descriptorValue = adjustLocClassInDescriptor(entry
-						.content().descriptor().utfValue());
+				String descriptorValue = entry.content().descriptor()
+						.descriptorInfo().adjustLocClassNames();
 				if (descriptorValue != null) {
 					classFile.changeNameAndTypeConstAt(i, descriptorValue);
 					isChanged = true;
@@ -361,8 +733,8 @@ public final class Main {
 	private static boolean adjustLocClassInFieldMethod(
 			FieldMethodEntry fieldMethod, ClassFile classFile)
 			throws BadClassFileException {
-		String descriptorValue = adjustLocClassInDescriptor(fieldMethod
-				.descriptor().utfValue());
+		String descriptorValue = fieldMethod.descriptor().descriptorInfo()
+				.adjustLocClassNames();
 		if (descriptorValue == null)
 			return false;
 		fieldMethod.changeDescriptor(classFile.addUtfConst(descriptorValue));
@@ -375,8 +747,8 @@ public final class Main {
 		boolean isChanged = false;
 		for (int i = localVarsContent.getVarsCount() - 1; i >= 0; i--) {
 			LocalVariableDesc localVarDesc = localVarsContent.getVarDescAt(i);
-			String descriptorValue = adjustLocClassInDescriptor(localVarDesc
-					.descriptor().utfValue());
+			String descriptorValue = localVarDesc.descriptor()
+					.descriptorInfo().adjustLocClassNames();
 			if (descriptorValue != null) {
 				localVarDesc.changeDescriptor(classFile
 						.addUtfConst(descriptorValue));
@@ -386,27 +758,11 @@ public final class Main {
 		return isChanged;
 	}
 
-	private static String adjustLocClassInDescriptor(String descriptorValue) {
-		boolean isChanged = false;
-		int pos = -1;
-		while ((pos = descriptorValue.indexOf('L', pos + 1)) >= 0) {
-			int startPos = pos + 1;
-			pos = descriptorValue.indexOf(';', startPos);
-			if (pos < 0)
-				break;
-			String className = adjustLocalClassName(descriptorValue.substring(
-					startPos, pos));
-			if (className != null) {
-				descriptorValue = descriptorValue.substring(0, startPos)
-						+ className + descriptorValue.substring(pos);
-				pos = startPos + className.length();
-				isChanged = true;
-			}
-		}
-		return isChanged ? descriptorValue : null;
+	static String adjustLocClassInDescriptor(String descriptorValue) {
+		return new DescriptorInfo(descriptorValue).adjustLocClassNames();
 	}
 
-	private static String adjustLocalClassName(String className) {
+	static String adjustLocalClassName(String className) {
 		int pos = className.lastIndexOf('/') + 1;
 		boolean isChanged = false;
 		while ((pos = className.indexOf('$', pos + 1)) >= 0) {
@@ -432,10 +788,46 @@ public final class Main {
 		return ch >= '0' && ch <= '9';
 	}
 
-	private static boolean process(ClassFile classFile, boolean setOldVer,
-			boolean keepBridgeMethods) throws BadClassFileException {
+	private static boolean isOldVerCompatible(ClassFile classFile)
+			throws BadClassFileException {
+		if (classFile.getJavaVer() > 8)
+			return false;
+		boolean isInterface = classFile.accessFlags().isInterface();
+		for (int i = classFile.getMethodsCount() - 1; i >= 0; i--) {
+			FieldMethodEntry method = classFile.getMethodAt(i);
+			if (isInterface && !method.accessFlags().isAbstract()
+					&& !method.name().utfValue().equals("<clinit>"))
+				return false;
+			AttrCodeContent codeContent = method.findCode();
+			if (codeContent != null
+					&& (hasIfaceMethodInvoke(codeContent, true)
+							|| hasIfaceMethodInvoke(codeContent, false)))
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean hasIfaceMethodInvoke(AttrCodeContent codeContent,
+			boolean isStatic) {
+		int codeIndex = -1;
+		while ((codeIndex = codeContent.findInvokestaticSpecial(codeIndex + 1,
+				isStatic)) >= 0) {
+			if (codeContent.getConstRefAt(codeIndex).isIfaceMethodConst())
+				return true;
+		}
+		return false;
+	}
+
+	static boolean process(ClassFile classFile, boolean setOldVer,
+			boolean keepBridgeMethods, boolean keepSemantics)
+			throws BadClassFileException {
 		boolean isChanged = false;
 		int javaVer = classFile.getJavaVer();
+		// A class which could not be run with the lowered version (e.g., one
+		// using the interface static or default methods) is left intact.
+		if (keepSemantics && setOldVer && javaVer > 3
+				&& !isOldVerCompatible(classFile))
+			return false;
 		if (setOldVer && javaVer > 3) {
 			javaVer = 3;
 			classFile.setJavaVer(javaVer);
@@ -444,7 +836,7 @@ public final class Main {
 		String className = classFile.className();
 		String superClassName = null;
 		int assertDisabledFieldInd = -1;
-		Hashtable usedStaticFields = null;
+		ObjHashtable usedStaticFields = null;
 		boolean isAnonymousClass = false;
 		int innerNamePos = className.lastIndexOf('$', className.length() - 2);
 		if (innerNamePos >= 0 && className.lastIndexOf('/') + 1 < innerNamePos) {
@@ -457,15 +849,17 @@ public final class Main {
 				isAnonymousClass = true;
 			}
 			superClassName = classFile.getSuperClassName();
-			assertDisabledFieldInd = classFile.findField("$assertionsDisabled",
-					"Z", true);
+			if (!keepSemantics) {
+				assertDisabledFieldInd = classFile.findField(
+						"$assertionsDisabled", "Z", true);
+			}
 			if (assertDisabledFieldInd >= 0
 					&& !classFile.getFieldAt(assertDisabledFieldInd)
 							.accessFlags().isFinal()) {
 				assertDisabledFieldInd = -1;
 			}
-		} else {
-			usedStaticFields = new Hashtable(
+		} else if (!keepSemantics) {
+			usedStaticFields = new ObjHashtable(
 					(classFile.getFieldsCount() << 1) + 1);
 		}
 		String otherClassSpecName = null;
@@ -486,11 +880,11 @@ public final class Main {
 				if (fixSyntheticFieldMethod(method, classFile, false)) {
 					isChanged = true;
 				}
-				if (method.accessFlags().clearTransient()) {
+				if (!keepSemantics && method.accessFlags().clearTransient()) {
 					isChanged = true;
 				}
 				if (codeContent != null) {
-					if (methodName.equals("class$")
+					if (!keepSemantics && methodName.equals("class$")
 							&& method.accessFlags().isStatic()
 							&& method.hasExceptionsSynthetic(false)
 							&& method
@@ -502,36 +896,29 @@ public final class Main {
 						}
 						if (usedStaticFields == null
 								&& classFile.getMethodsCount() - 1 == i) {
-							usedStaticFields = new Hashtable();
+							usedStaticFields = new ObjHashtable();
 						}
 					}
-					if (fixDualCasts(codeContent)) {
-						isChanged = true;
-					}
 					int argSlots = method.getArgSlotsCount();
 					if (argSlots > codeContent.maxLocals())
 						throw new BadClassFileException();
-					Hashtable catchesSet = new Hashtable(
-							(codeContent.getCatchesCount() << 1) + 1);
-					for (int j = 0, count = codeContent.getCatchesCount(); j < count; j++) {
-						if (fixFinallyBlocks(codeContent, argSlots,
-								codeContent.getCatch(j), catchesSet)) {
-							int newCount = codeContent.getCatchesCount();
-							if (count > newCount) {
-								if ((j -= count - newCount + 1) < 0) {
-									j = -1;
-								}
-							}
-							count = newCount;
-							isChanged = true;
-						}
+					if (codeContent.hasOpCodeKind(OpCodeKindIndex.CHECKCAST)
+							&& fixDualCasts(codeContent)) {
+						isChanged = true;
 					}
-					if (fixExcCatches(codeContent, method.isVoidRetType(),
-							javaVer)) {
+					if (!keepSemantics && codeContent.getCatchesCount() != 0
+							&& fixAllFinallyBlocks(codeContent, argSlots)) {
 						isChanged = true;
 					}
-					if (superClassName != null) {
-						if (methodName.equals("<init>")) {
+					if (!keepSemantics && codeContent.getCatchesCount() != 0
+							&& fixExcCatches(codeContent, method
+									.isVoidRetType(), javaVer)) {
+						isChanged = true;
+					}
+					if (superClassName != null && !keepSemantics) {
+						if (methodName.equals("<init>")
+								&& codeContent.hasOpCodeKind(
+										OpCodeKindIndex.INVOKESPECIAL)) {
 							if (fixInnerInitMethod(codeContent, superClassName)) {
 								isChanged = true;
 							}
@@ -541,7 +928,9 @@ public final class Main {
 								isChanged = true;
 							}
 						}
-						if (assertDisabledFieldInd >= 0) {
+						if (assertDisabledFieldInd >= 0
+								&& codeContent.hasOpCodeKind(
+										OpCodeKindIndex.PUTGETSTATIC)) {
 							if (methodName.equals("<clinit>")
 									&& !fixInnerSetAssertDisabled(codeContent,
 											className)) {
@@ -552,15 +941,23 @@ public final class Main {
 							}
 						}
 					}
-					String fieldClassName = fixOuterClassLiteral(codeContent,
-							classFile);
-					if (fieldClassName != null) {
-						otherClassSpecName = fieldClassName;
+					if (!keepSemantics
+							&& codeContent.hasOpCodeKind(
+									OpCodeKindIndex.INVOKESTATIC)) {
+						String fieldClassName = fixOuterClassLiteral(
+								codeContent, classFile);
+						if (fieldClassName != null) {
+							otherClassSpecName = fieldClassName;
+						}
 					}
-					if (fixLdcClassConst(codeContent, classFile)) {
+					if ((!keepSemantics || javaVer < 5)
+							&& codeContent.hasOpCodeKind(OpCodeKindIndex.LDC)
+							&& fixLdcClassConst(codeContent, classFile)) {
 						isChanged = true;
 					}
-					if (usedStaticFields != null) {
+					if (usedStaticFields != null
+							&& codeContent.hasOpCodeKind(
+									OpCodeKindIndex.PUTGETSTATIC)) {
 						collectUsedStaticFieldNames(usedStaticFields,
 								codeContent, className);
 					}
@@ -675,8 +1072,29 @@ public final class Main {
 		return isChanged;
 	}
 
+	private static boolean fixAllFinallyBlocks(AttrCodeContent codeContent,
+			int argSlots) {
+		boolean isChanged = false;
+		ObjHashtable catchesSet = new ObjHashtable(
+				(codeContent.getCatchesCount() << 1) + 1);
+		for (int j = 0, count = codeContent.getCatchesCount(); j < count; j++) {
+			if (fixFinallyBlocks(codeContent, argSlots, codeContent.getCatch(j),
+					catchesSet)) {
+				int newCount = codeContent.getCatchesCount();
+				if (count > newCount) {
+					if ((j -= count - newCount + 1) < 0) {
+						j = -1;
+					}
+				}
+				count = newCount;
+				isChanged = true;
+			}
+		}
+		return isChanged;
+	}
+
 	private static boolean fixFinallyBlocks(AttrCodeContent codeContent,
-			int argSlots, ExceptionCatch excCatch, Hashtable catchesSet) {
+			int argSlots, ExceptionCatch excCatch, ObjHashtable catchesSet) {
 		boolean isChanged = false;
 		if (catchesSet.get(excCatch) == null) {
 			int endIndex = excCatch.end().getIndex();
@@ -1027,7 +1445,7 @@ public final class Main {
 			if (codeContent.isTargetInRangeAt(codeIndex, 0, codeIndex - 1))
 				return false;
 		}
-		Hashtable names = new Hashtable();
+		ObjHashtable names = new ObjHashtable();
 		boolean isChanged = false;
 		String className = classFile.className();
 		while (++startIndex < codeLimit
@@ -1289,9 +1707,9 @@ public final class Main {
 		return isChanged;
 	}
 
-	private static void collectUsedStaticFieldNames(Hashtable usedStaticFields,
-			AttrCodeContent codeContent, String className)
-			throws BadClassFileException {
+	private static void collectUsedStaticFieldNames(
+			ObjHashtable usedStaticFields, AttrCodeContent codeContent,
+			String className) throws BadClassFileException {
 		int codeIndex = -1;
 		while ((codeIndex = codeContent.findPutGetstatic(codeIndex + 1)) >= 0) {
 			ConstantRef fieldRef = codeContent.getConstRefAt(codeIndex);
@@ -1303,7 +1721,7 @@ public final class Main {
 	}
 
 	private static boolean removeUnusedClassSpecFields(ClassFile classFile,
-			Hashtable usedStaticFields) throws BadClassFileException {
+			ObjHashtable usedStaticFields) throws BadClassFileException {
 		boolean isChanged = false;
 		for (int i = classFile.getFieldsCount() - 1; i >= 0; i--) {
 			FieldMethodEntry field = classFile.getFieldAt(i);
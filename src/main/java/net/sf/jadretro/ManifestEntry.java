@@ -0,0 +1,197 @@
+/*
+ * @(#) net/sf/jadretro/ManifestEntry.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+
+final class ManifestEntry {
+
+	private/* final */String path;
+
+	private long size;
+
+	private long time;
+
+	private int crc;
+
+	private boolean hasCrc;
+
+	private int classesCount;
+
+	private String className;
+
+	private String newClassName;
+
+	private boolean isChanged;
+
+	private String outPath;
+
+	private long outSize;
+
+	private long outTime;
+
+	ManifestEntry(File infile) {
+		path = infile.getAbsolutePath();
+		size = infile.length();
+		time = infile.lastModified();
+	}
+
+	ManifestEntry(DataInputStream in) throws IOException {
+		path = in.readUTF();
+		size = in.readLong();
+		time = in.readLong();
+		crc = in.readInt();
+		hasCrc = true;
+		classesCount = in.readInt();
+		className = readOptUTF(in);
+		newClassName = readOptUTF(in);
+		isChanged = in.readBoolean();
+		outPath = readOptUTF(in);
+		outSize = in.readLong();
+		outTime = in.readLong();
+	}
+
+	void writeTo(DataOutputStream out) throws IOException {
+		out.writeUTF(path);
+		out.writeLong(size);
+		out.writeLong(time);
+		out.writeInt(crc);
+		out.writeInt(classesCount);
+		writeOptUTF(out, className);
+		writeOptUTF(out, newClassName);
+		out.writeBoolean(isChanged);
+		writeOptUTF(out, outPath);
+		out.writeLong(outSize);
+		out.writeLong(outTime);
+	}
+
+	String path() {
+		return path;
+	}
+
+	boolean hasCrc() {
+		return hasCrc;
+	}
+
+	int crc() {
+		return crc;
+	}
+
+	void setCrc(int crc) {
+		this.crc = crc;
+		hasCrc = true;
+	}
+
+	int classesCount() {
+		return classesCount;
+	}
+
+	String className() {
+		return className;
+	}
+
+	String newClassName() {
+		return newClassName;
+	}
+
+	boolean isChanged() {
+		return isChanged;
+	}
+
+	String outPath() {
+		return outPath;
+	}
+
+	void setResult(int classesCount, String className, String newClassName,
+			boolean isChanged) {
+		this.classesCount = classesCount;
+		this.className = className;
+		this.newClassName = newClassName;
+		this.isChanged = isChanged;
+	}
+
+	void setOutput(File outfile) {
+		outPath = null;
+		outSize = 0L;
+		outTime = 0L;
+		if (outfile != null) {
+			outPath = outfile.getAbsolutePath();
+			outSize = outfile.length();
+			outTime = outfile.lastModified();
+		}
+	}
+
+	boolean isSameInput(ManifestEntry stamp) {
+		return size == stamp.size && time == stamp.time;
+	}
+
+	boolean isSameSize(ManifestEntry stamp) {
+		return size == stamp.size;
+	}
+
+	boolean isModifiedSince(long since) {
+		return time >= since;
+	}
+
+	void touch(ManifestEntry stamp) {
+		time = stamp.time;
+	}
+
+	boolean isOutputIntact() {
+		if (outPath == null)
+			return true;
+		File outfile = new File(outPath);
+		return outfile.isFile() && outfile.length() == outSize
+				&& outfile.lastModified() == outTime;
+	}
+
+	private static String readOptUTF(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	private static void writeOptUTF(DataOutputStream out, String str)
+			throws IOException {
+		out.writeBoolean(str != null);
+		if (str != null) {
+			out.writeUTF(str);
+		}
+	}
+}
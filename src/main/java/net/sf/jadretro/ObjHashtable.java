@@ -0,0 +1,164 @@
+/*
+ * @(#) net/sf/jadretro/ObjHashtable.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+final class ObjHashtable {
+
+	private Object[] keys;
+
+	private Object[] values;
+
+	private int[] hashes;
+
+	private int[] nexts;
+
+	private int[] buckets;
+
+	private int count;
+
+	ObjHashtable() {
+		this(0);
+	}
+
+	ObjHashtable(int capacity) {
+		allocate(capacity > 4 ? capacity : 4);
+	}
+
+	int size() {
+		return count;
+	}
+
+	Object get(Object key) {
+		int i = indexOf(key, key.hashCode());
+		return i >= 0 ? values[i] : null;
+	}
+
+	Object put(Object key, Object value) {
+		if (value == null)
+			throw new NullPointerException();
+		int hash = key.hashCode();
+		int i = indexOf(key, hash);
+		if (i >= 0) {
+			Object oldValue = values[i];
+			values[i] = value;
+			return oldValue;
+		}
+		if (keys.length == count) {
+			rehash();
+		}
+		keys[count] = key;
+		values[count] = value;
+		hashes[count] = hash;
+		int bucket = hash & (buckets.length - 1);
+		nexts[count] = buckets[bucket];
+		buckets[bucket] = ++count;
+		return null;
+	}
+
+	Object remove(Object key) {
+		int i = indexOf(key, key.hashCode());
+		if (i < 0)
+			return null;
+		Object oldValue = values[i];
+		unlink(i);
+		int last = --count;
+		if (i != last) {
+			unlink(last);
+			keys[i] = keys[last];
+			values[i] = values[last];
+			hashes[i] = hashes[last];
+			int bucket = hashes[i] & (buckets.length - 1);
+			nexts[i] = buckets[bucket];
+			buckets[bucket] = i + 1;
+		}
+		keys[last] = null;
+		values[last] = null;
+		return oldValue;
+	}
+
+	private int indexOf(Object key, int hash) {
+		int i = buckets[hash & (buckets.length - 1)];
+		while (i-- > 0) {
+			if (hashes[i] == hash && key.equals(keys[i]))
+				return i;
+			i = nexts[i];
+		}
+		return -1;
+	}
+
+	private void unlink(int index) {
+		int bucket = hashes[index] & (buckets.length - 1);
+		int i = buckets[bucket] - 1;
+		if (i == index) {
+			buckets[bucket] = nexts[index];
+		} else {
+			while (nexts[i] - 1 != index) {
+				i = nexts[i] - 1;
+			}
+			nexts[i] = nexts[index];
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		hashes = new int[capacity];
+		nexts = new int[capacity];
+		int len = 4;
+		while (len < capacity) {
+			len <<= 1;
+		}
+		buckets = new int[len];
+	}
+
+	private void rehash() {
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		int[] oldHashes = hashes;
+		allocate(count << 1);
+		System.arraycopy(oldKeys, 0, keys, 0, count);
+		System.arraycopy(oldValues, 0, values, 0, count);
+		System.arraycopy(oldHashes, 0, hashes, 0, count);
+		int mask = buckets.length - 1;
+		for (int i = 0; i < count; i++) {
+			int bucket = hashes[i] & mask;
+			nexts[i] = buckets[bucket];
+			buckets[bucket] = i + 1;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * @(#) net/sf/jadretro/ObjVector.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+final class ObjVector {
+
+	private static final Object[] EMPTY_ELEMENTS = {};
+
+	private Object[] elements;
+
+	private int count;
+
+	ObjVector() {
+		elements = EMPTY_ELEMENTS;
+	}
+
+	ObjVector(int capacity) {
+		elements = capacity > 0 ? new Object[capacity] : EMPTY_ELEMENTS;
+	}
+
+	int size() {
+		return count;
+	}
+
+	Object elementAt(int index) {
+		if (index >= count)
+			throw new ArrayIndexOutOfBoundsException(index);
+		return elements[index];
+	}
+
+	void setElementAt(Object obj, int index) {
+		if (index >= count)
+			throw new ArrayIndexOutOfBoundsException(index);
+		elements[index] = obj;
+	}
+
+	void addElement(Object obj) {
+		if (elements.length == count) {
+			ensureCapacity(count + 1);
+		}
+		elements[count++] = obj;
+	}
+
+	void insertElementAt(Object obj, int index) {
+		if (index > count)
+			throw new ArrayIndexOutOfBoundsException(index);
+		if (elements.length == count) {
+			ensureCapacity(count + 1);
+		}
+		System.arraycopy(elements, index, elements, index + 1, count - index);
+		elements[index] = obj;
+		count++;
+	}
+
+	void removeElementAt(int index) {
+		if (index >= count)
+			throw new ArrayIndexOutOfBoundsException(index);
+		System.arraycopy(elements, index + 1, elements, index, count - index
+				- 1);
+		elements[--count] = null;
+	}
+
+	void setSize(int newCount) {
+		if (elements.length < newCount) {
+			ensureCapacity(newCount);
+		} else {
+			for (int i = newCount; i < count; i++) {
+				elements[i] = null;
+			}
+		}
+		count = newCount;
+	}
+
+	private void ensureCapacity(int minCapacity) {
+		int len = elements.length;
+		len = len > 0 ? len << 1 : 4;
+		Object[] newElements = new Object[len > minCapacity ? len
+				: minCapacity];
+		System.arraycopy(elements, 0, newElements, 0, count);
+		elements = newElements;
+	}
+}
@@ -38,98 +38,194 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.util.Hashtable;
 
 abstract class OpByteCode extends ClassLabeledEntity {
 
-	abstract int getLength(int curPc);
-
-	void writeTo(OutputStream out) throws IOException {
+	private static final int SIMPLE = 0;
+
+	private static final int VAR = 1;
+
+	private static final int JUMP = 2;
+
+	private static final int SWITCH = 3;
+
+	private static final int CONST = 4;
+
+	private static int categoryOf(int op) {
+		op &= 0xff;
+		if (OpCodeVar.isVarOp(op))
+			return VAR;
+		if (OpCodeJump.rawLength(op) != 0)
+			return JUMP;
+		if (OpCodeSwitch.isSwitchOp(op))
+			return SWITCH;
+		return OpCodeConst.isConstOp(op) ? CONST : SIMPLE;
+	}
+
+	static void decodeTo(OpCodeArray opCodes, int index, ClassInputBuffer in,
+			int curPc, int[] indices) throws IOException {
+		int op = readUnsignedByte(in);
+		switch (categoryOf(op)) {
+		case VAR:
+			OpCodeVar.decodeTo(opCodes, index, op, in);
+			break;
+		case JUMP:
+			OpCodeJump.decodeTo(opCodes, index, op, in, curPc, indices);
+			break;
+		case SWITCH:
+			OpCodeSwitch opCodeSwitch = OpCodeSwitch.decode(op, in, curPc);
+			opCodeSwitch.mapLabelsPc(indices);
+			opCodes.setSwitch(index, opCodeSwitch);
+			break;
+		case CONST:
+			OpCodeConst.decodeTo(opCodes, index, op, in);
+			break;
+		default:
+			opCodes.set(index, op, 0, 0);
+			break;
+		}
+	}
+
+	void writeTo(ClassOutputBuffer out) throws IOException {
 		throw new IllegalArgumentException();
 	}
 
-	void writeRelTo(OutputStream out, int curPc) throws IOException {
-		writeTo(out);
-	}
-
-	abstract boolean isEqualTo(OpByteCode other, int startIndex,
-			int deltaIndex, int endIndex2, int[] indexRef, int[] deltaVarRef,
-			int argSlots, Hashtable diffVarsSet);
-
-	boolean isAstoreAload(boolean isStore) {
-		return false;
-	}
-
-	boolean isAthrow() {
-		return false;
-	}
-
-	boolean isCheckcast() {
-		return false;
-	}
-
-	boolean isInvokeMethod() {
-		return false;
-	}
-
-	boolean isInvokestaticSpecial(boolean isStatic) {
-		return false;
-	}
-
-	boolean isInvokevirtual() {
-		return false;
-	}
-
-	boolean isJsrGoto(boolean isJsr) {
-		return false;
-	}
-
-	boolean isLdc() {
-		return false;
-	}
-
-	boolean isMonitorexit() {
-		return false;
-	}
-
-	boolean isPutGetstatic(boolean isPut) {
-		return false;
-	}
-
-	boolean isPutfield() {
-		return false;
-	}
-
-	boolean isRetXLoad(boolean isRet) {
-		return false;
-	}
-
-	boolean isXConstZero() {
-		return false;
-	}
-
-	boolean isXReturn() {
-		return false;
-	}
-
-	int getVarIndex() {
-		return -1;
-	}
-
-	ConstantRef getConstRef() {
-		return null;
-	}
-
-	CodeAbsLabel getTargetLabel() {
-		return null;
-	}
-
-	boolean isTargetInRange(int startIndex, int endIndex) {
-		return false;
-	}
-
-	boolean isUncondBranch() {
-		return false;
+	static int getLength(OpCodeArray opCodes, int index, int curPc) {
+		int op = opCodes.getOp(index);
+		switch (categoryOf(op)) {
+		case VAR:
+			return OpCodeVar.getLength(op);
+		case JUMP:
+			return OpCodeJump.getLength(op);
+		case SWITCH:
+			return opCodes.getSwitch(index).getLength(curPc);
+		case CONST:
+			return OpCodeConst.getLength(op);
+		}
+		return 1;
+	}
+
+	static void bindLabels(OpCodeArray opCodes) {
+		int count = opCodes.size();
+		for (int i = 0; i < count; i++) {
+			switch (categoryOf(opCodes.getOp(i))) {
+			case JUMP:
+				opCodes.bindTargetIndex(i);
+				break;
+			case SWITCH:
+				opCodes.bindSwitchLabels(i);
+				break;
+			}
+		}
+	}
+
+	static void rebuildLabelsPc(OpCodeArray opCodes, int[] offsets) {
+		int count = opCodes.size();
+		for (int i = 0; i < count; i++) {
+			switch (categoryOf(opCodes.getOp(i))) {
+			case JUMP:
+				int targetIndex = opCodes.getTargetIndex(i);
+				if (targetIndex < 0 || targetIndex >= offsets.length)
+					throw new IllegalArgumentException();
+				break;
+			case SWITCH:
+				opCodes.getSwitch(i).rebuildLabelsPc(offsets);
+				break;
+			}
+		}
+	}
+
+	static void writeRelTo(ClassOutputBuffer out, OpCodeArray opCodes,
+			int index, int[] offsets) throws IOException {
+		int op = opCodes.getOp(index);
+		int curPc = offsets[index];
+		switch (categoryOf(op)) {
+		case VAR:
+			OpCodeVar.writeTo(out, op, opCodes.getArg(index), opCodes
+					.getExtra(index));
+			break;
+		case JUMP:
+			OpCodeJump.writeRelTo(out, op,
+					offsets[opCodes.getTargetIndex(index)], curPc);
+			break;
+		case SWITCH:
+			opCodes.getSwitch(index).writeRelTo(out, curPc);
+			break;
+		case CONST:
+			OpCodeConst.writeTo(out, op, opCodes.getArg(index), opCodes
+					.getExtra(index));
+			break;
+		default:
+			out.write(op);
+			break;
+		}
+	}
+
+	static boolean isEqualTo(OpCodeArray opCodes, int index, int otherIndex,
+			int startIndex, int deltaIndex, int endIndex2, int[] indexRef,
+			int[] deltaVarRef, int argSlots, ObjHashtable diffVarsSet) {
+		int op = opCodes.getOp(index);
+		int otherOp = opCodes.getOp(otherIndex);
+		int category = categoryOf(op);
+		if (categoryOf(otherOp) != category)
+			return false;
+		switch (category) {
+		case VAR:
+			return OpCodeVar.isEqualTo(opCodes, index, otherIndex,
+					deltaVarRef, argSlots, diffVarsSet);
+		case JUMP:
+			return op == otherOp
+					&& CodeAbsLabel.isEqualIndex(opCodes
+							.getTargetIndex(index), opCodes
+							.getTargetIndex(otherIndex), startIndex,
+							deltaIndex, endIndex2, indexRef);
+		case SWITCH:
+			return opCodes.getSwitch(index).isEqualTo(
+					opCodes.getSwitch(otherIndex), startIndex, deltaIndex,
+					endIndex2, indexRef);
+		case CONST:
+			return op == otherOp
+					&& opCodes.getArg(index) == opCodes.getArg(otherIndex)
+					&& opCodes.getExtra(index) == opCodes.getExtra(otherIndex);
+		}
+		return op == otherOp;
+	}
+
+	static boolean isTargetInRange(OpCodeArray opCodes, int index,
+			int startIndex, int endIndex) {
+		switch (categoryOf(opCodes.getOp(index))) {
+		case JUMP:
+			int targetIndex = opCodes.getTargetIndex(index);
+			return targetIndex >= startIndex && targetIndex < endIndex;
+		case SWITCH:
+			return opCodes.getSwitch(index).isTargetInRange(startIndex,
+					endIndex);
+		}
+		return false;
+	}
+
+	static void addBranchesTo(BranchTargetIndex branchIndex,
+			OpCodeArray opCodes, int sourceIndex) {
+		switch (categoryOf(opCodes.getOp(sourceIndex))) {
+		case JUMP:
+			branchIndex.addBranch(opCodes.getTargetIndex(sourceIndex),
+					sourceIndex);
+			break;
+		case SWITCH:
+			opCodes.getSwitch(sourceIndex).addBranchesTo(branchIndex,
+					sourceIndex);
+			break;
+		}
+	}
+
+	static int getKind(int op) {
+		int kind = OpCodeVar.getKind(op);
+		return kind >= 0 ? kind : OpCodeConst.kindOf(op);
+	}
+
+	static boolean isUncondBranch(int op) {
+		return OpCodeSimple.isUncondBranch(op) || OpCodeVar.isUncondBranch(op)
+				|| OpCodeJump.isUncondBranch(op)
+				|| OpCodeSwitch.isSwitchOp(op);
 	}
 }
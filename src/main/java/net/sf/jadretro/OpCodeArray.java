@@ -0,0 +1,164 @@
+/*
+ * @(#) net/sf/jadretro/OpCodeArray.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+final class OpCodeArray {
+
+	private/* final */CodeEditLog editLog;
+
+	private int[] ops;
+
+	private int[] args;
+
+	private int[] extras;
+
+	private int count;
+
+	private ObjVector switches;
+
+	OpCodeArray(CodeEditLog editLog) {
+		this.editLog = editLog;
+		ops = new int[0];
+		args = ops;
+		extras = ops;
+	}
+
+	int size() {
+		return count;
+	}
+
+	int getOp(int index) {
+		return index >= 0 && count > index ? ops[index] : 0;
+	}
+
+	int getArg(int index) {
+		return args[index];
+	}
+
+	int getExtra(int index) {
+		return extras[index];
+	}
+
+	int getTargetIndex(int index) {
+		int epoch = editLog.epoch();
+		if (extras[index] != epoch) {
+			args[index] = editLog.remapIndex(args[index], extras[index]);
+			extras[index] = epoch;
+		}
+		return args[index];
+	}
+
+	void bindTargetIndex(int index) {
+		if (extras[index] != editLog.epoch()) {
+			editLog.addPendingTarget(index, extras[index]);
+		}
+	}
+
+	void setTargetIndex(int index, int targetIndex) {
+		args[index] = targetIndex;
+		extras[index] = editLog.epoch();
+	}
+
+	void bindSwitchLabels(int index) {
+		getSwitch(index).bindLabels(editLog);
+	}
+
+	OpCodeSwitch getSwitch(int index) {
+		return (OpCodeSwitch) switches.elementAt(args[index]);
+	}
+
+	void set(int index, int op, int arg, int extra) {
+		ops[index] = op;
+		args[index] = arg;
+		extras[index] = extra;
+	}
+
+	void setJump(int index, int op, int targetIndex) {
+		set(index, op, targetIndex, editLog.epoch());
+	}
+
+	void setSwitch(int index, OpCodeSwitch opCodeSwitch) {
+		if (switches == null) {
+			switches = new ObjVector(1);
+		}
+		opCodeSwitch.bindLabels(editLog);
+		set(index, opCodeSwitch.getOp(), switches.size(), 0);
+		switches.addElement(opCodeSwitch);
+	}
+
+	void copy(int srcIndex, int destIndex) {
+		set(destIndex, ops[srcIndex], args[srcIndex], extras[srcIndex]);
+	}
+
+	void setSize(int newCount) {
+		if (ops.length < newCount) {
+			int len = newCount + (newCount >> 3);
+			ops = grow(ops, len, count);
+			args = grow(args, len, count);
+			extras = grow(extras, len, count);
+		}
+		count = newCount;
+	}
+
+	private static int[] grow(int[] values, int len, int count) {
+		int[] newValues = new int[len];
+		System.arraycopy(values, 0, newValues, 0, count);
+		return newValues;
+	}
+
+	void insertNopsAt(int startIndex, int insCount) {
+		int endIndex = startIndex + insCount;
+		int moveCount = count - startIndex;
+		setSize(count + insCount);
+		System.arraycopy(ops, startIndex, ops, endIndex, moveCount);
+		System.arraycopy(args, startIndex, args, endIndex, moveCount);
+		System.arraycopy(extras, startIndex, extras, endIndex, moveCount);
+		while (startIndex < endIndex) {
+			set(startIndex++, 0, 0, 0);
+		}
+	}
+
+	void removeAt(int startIndex, int remCount) {
+		int endIndex = startIndex + remCount;
+		int moveCount = count - endIndex;
+		System.arraycopy(ops, endIndex, ops, startIndex, moveCount);
+		System.arraycopy(args, endIndex, args, startIndex, moveCount);
+		System.arraycopy(extras, endIndex, extras, startIndex, moveCount);
+		count -= remCount;
+	}
+}
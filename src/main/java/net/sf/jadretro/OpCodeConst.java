@@ -38,9 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Hashtable;
 
 final class OpCodeConst extends OpByteCode {
 
@@ -80,144 +77,174 @@ final class OpCodeConst extends OpByteCode {
 
 	private static final int SIPUSH = 0x11;
 
-	private/* final */int op;
-
-	private/* final */ConstantRef poolConst;
+	private OpCodeConst() {
+	}
 
-	private/* final */int intArg;
+	static boolean isConstOp(int op) {
+		return op == SIPUSH || op == BIPUSH || op == NEWARRAY
+				|| hasPoolConst(op);
+	}
 
-	private OpCodeConst(int op, ConstantRef poolConst, int intArg) {
-		this.op = op;
-		this.poolConst = poolConst;
-		this.intArg = intArg;
+	private static boolean hasPoolConst(int op) {
+		return op == LDC || op == LDC_W || op == LDC2_W
+				|| (op >= GETSTATIC && op <= INVOKEINTERFACE) || op == NEW
+				|| op == ANEWARRAY || op == CHECKCAST || op == INSTANCEOF
+				|| op == MULTIANEWARRAY;
 	}
 
-	private OpCodeConst(int op, ConstantRef poolConst) {
-		if (poolConst == null)
-			throw new IllegalArgumentException();
-		this.op = op;
-		this.poolConst = poolConst;
-		intArg = 0;
+	static void decodeTo(OpCodeArray opCodes, int index, int op,
+			ClassInputBuffer in) throws IOException {
+		if (op == LDC) {
+			opCodes.set(index, LDC, readUnsignedByte(in), 0);
+		} else if (op == SIPUSH) {
+			opCodes.set(index, SIPUSH, readShort(in), 0);
+		} else if (op == BIPUSH || op == NEWARRAY) {
+			opCodes.set(index, op, readByte(in), 0);
+		} else {
+			int poolIndex = readUnsignedShort(in);
+			int intArg = 0;
+			if (op == INVOKEINTERFACE || op == MULTIANEWARRAY) {
+				intArg = readUnsignedByte(in);
+				if (op == INVOKEINTERFACE && in.read() != 0)
+					throw new BadClassFileException();
+			}
+			opCodes.set(index, op, poolIndex, intArg);
+		}
 	}
 
-	static OpCodeConst decode(int op, InputStream in, ClassFile classFile)
+	static int rawLength(int op, byte[] bytes, int pos, int constPoolCount)
 			throws IOException {
-		if (op == LDC)
-			return new OpCodeConst(LDC, ConstantRef.readAsByteFrom(in,
-					classFile), 0);
+		if (op == LDC) {
+			checkRawIndex(getUnsignedByteAt(bytes, pos + 1), constPoolCount);
+			return 2;
+		}
 		if (op == SIPUSH)
-			return new OpCodeConst(SIPUSH, null, readShort(in));
+			return 3;
 		if (op == BIPUSH || op == NEWARRAY)
-			return new OpCodeConst(op, null, readByte(in));
+			return 2;
 		if (op == LDC_W || op == LDC2_W
 				|| (op >= GETSTATIC && op <= INVOKEINTERFACE) || op == NEW
 				|| op == ANEWARRAY || op == CHECKCAST || op == INSTANCEOF
 				|| op == MULTIANEWARRAY) {
-			ConstantRef poolConst = new ConstantRef(in, classFile, false);
-			int intArg = 0;
-			if (op == INVOKEINTERFACE || op == MULTIANEWARRAY) {
-				intArg = readUnsignedByte(in);
-				if (op == INVOKEINTERFACE && in.read() != 0)
+			checkRawIndex(getUnsignedShortAt(bytes, pos + 1), constPoolCount);
+			if (op == INVOKEINTERFACE) {
+				if (getUnsignedByteAt(bytes, pos + 4) != 0)
 					throw new BadClassFileException();
+				return 5;
 			}
-			return new OpCodeConst(op, poolConst, intArg);
+			return op == MULTIANEWARRAY ? 4 : 3;
 		}
-		return null;
+		return 0;
 	}
 
-	static OpCodeConst makeInvokestatic(ConstantRef method) {
-		return new OpCodeConst(INVOKESTATIC, method);
+	private static void checkRawIndex(int index, int constPoolCount)
+			throws BadClassFileException {
+		if (index == 0 || constPoolCount <= index)
+			throw new BadClassFileException();
 	}
 
-	static OpCodeConst makeInvokevirtualSpecial(ConstantRef method,
-			boolean isVirtual) {
-		return new OpCodeConst(isVirtual ? INVOKEVIRTUAL : INVOKESPECIAL,
-				method);
+	static int getRawPoolIndex(byte[] bytes, int pos) {
+		int op = bytes[pos] & 0xff;
+		if (op == LDC)
+			return bytes[pos + 1] & 0xff;
+		return hasPoolConst(op) ? ((bytes[pos + 1] & 0xff) << 8)
+				| (bytes[pos + 2] & 0xff) : 0;
+	}
+
+	static int getPoolIndex(OpCodeArray opCodes, int index) {
+		return hasPoolConst(opCodes.getOp(index)) ? opCodes.getArg(index) : 0;
+	}
+
+	static int kindOf(int op) {
+		if (op == CHECKCAST)
+			return OpCodeKindIndex.CHECKCAST;
+		if (op == LDC || op == LDC_W)
+			return OpCodeKindIndex.LDC;
+		if (op == INVOKESTATIC)
+			return OpCodeKindIndex.INVOKESTATIC;
+		if (op == INVOKESPECIAL)
+			return OpCodeKindIndex.INVOKESPECIAL;
+		if (op == PUTSTATIC || op == GETSTATIC)
+			return OpCodeKindIndex.PUTGETSTATIC;
+		return -1;
 	}
 
-	static OpCodeConst makeLdc(ConstantRef poolConst) {
-		return new OpCodeConst(poolConst.isWide() ? LDC_W : LDC, poolConst);
+	static int makeInvokestatic() {
+		return INVOKESTATIC;
 	}
 
-	static OpCodeConst makeNewCheckcast(ConstantRef classConst, boolean isNew) {
-		return new OpCodeConst(isNew ? NEW : CHECKCAST, classConst);
+	static int makeInvokevirtualSpecial(boolean isVirtual) {
+		return isVirtual ? INVOKEVIRTUAL : INVOKESPECIAL;
 	}
 
-	static OpCodeConst makePutGetstatic(ConstantRef field, boolean isPut) {
-		return new OpCodeConst(isPut ? PUTSTATIC : GETSTATIC, field);
+	static int makeLdc(ConstantRef poolConst) {
+		return poolConst.isWide() ? LDC_W : LDC;
 	}
 
-	int getLength(int curPc) {
+	static int makeNewCheckcast(boolean isNew) {
+		return isNew ? NEW : CHECKCAST;
+	}
+
+	static int makePutGetstatic(boolean isPut) {
+		return isPut ? PUTSTATIC : GETSTATIC;
+	}
+
+	static int getLength(int op) {
 		return op == INVOKEINTERFACE ? 5 : op == MULTIANEWARRAY ? 4
 				: op == BIPUSH || op == LDC || op == NEWARRAY ? 2 : 3;
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	static void writeTo(ClassOutputBuffer out, int op, int arg, int intArg)
+			throws IOException {
 		out.write(op);
-		if (poolConst != null) {
-			if (op == LDC) {
-				poolConst.writeAsByteTo(out);
-			} else {
-				poolConst.writeTo(out);
-				if (op == INVOKEINTERFACE || op == MULTIANEWARRAY) {
-					out.write(intArg);
-					if (op == INVOKEINTERFACE) {
-						out.write(0);
-					}
-				}
-			}
+		if (op == LDC) {
+			if ((arg & ~0xff) != 0)
+				throw new ClassOverflowException();
+			out.write(arg);
 		} else if (op == SIPUSH) {
-			writeShort(out, intArg);
+			writeShort(out, arg);
+		} else if (op == BIPUSH || op == NEWARRAY) {
+			out.write(arg);
 		} else {
-			out.write(intArg);
+			writeShort(out, arg);
+			if (op == INVOKEINTERFACE || op == MULTIANEWARRAY) {
+				out.write(intArg);
+				if (op == INVOKEINTERFACE) {
+					out.write(0);
+				}
+			}
 		}
 	}
 
-	boolean isEqualTo(OpByteCode other, int startIndex, int deltaIndex,
-			int endIndex2, int[] indexRef, int[] deltaVarRef, int argSlots,
-			Hashtable diffVarsSet) {
-		if (!(other instanceof OpCodeConst))
-			return false;
-		OpCodeConst opCodeConst = (OpCodeConst) other;
-		return op == opCodeConst.op
-				&& intArg == opCodeConst.intArg
-				&& (poolConst == null || poolConst
-						.isEqualTo(opCodeConst.poolConst));
-	}
-
-	boolean isCheckcast() {
+	static boolean isCheckcast(int op) {
 		return op == CHECKCAST;
 	}
 
-	boolean isInvokeMethod() {
+	static boolean isInvokeMethod(int op) {
 		return op >= INVOKEVIRTUAL && op <= INVOKEINTERFACE;
 	}
 
-	boolean isInvokestaticSpecial(boolean isStatic) {
+	static boolean isInvokestaticSpecial(int op, boolean isStatic) {
 		return isStatic ? op == INVOKESTATIC : op == INVOKESPECIAL;
 	}
 
-	boolean isInvokevirtual() {
+	static boolean isInvokevirtual(int op) {
 		return op == INVOKEVIRTUAL;
 	}
 
-	boolean isLdc() {
+	static boolean isLdc(int op) {
 		return op == LDC || op == LDC_W;
 	}
 
-	boolean isPutGetstatic(boolean isPut) {
+	static boolean isPutGetstatic(int op, boolean isPut) {
 		return isPut ? op == PUTSTATIC : op == GETSTATIC;
 	}
 
-	boolean isPutfield() {
+	static boolean isPutfield(int op) {
 		return op == PUTFIELD;
 	}
 
-	boolean isXConstZero() {
+	static boolean isXConstZero(int op, int intArg) {
 		return (op == BIPUSH || op == SIPUSH) && intArg == 0;
 	}
-
-	ConstantRef getConstRef() {
-		return poolConst;
-	}
 }
@@ -38,9 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Hashtable;
 
 final class OpCodeJump extends OpByteCode {
 
@@ -58,80 +55,57 @@ final class OpCodeJump extends OpByteCode {
 
 	private static final int JSR_W = 0xc9;
 
-	private/* final */int op;
-
-	private/* final */CodeAbsLabel targetLabel;
-
-	private OpCodeJump(int op, CodeAbsLabel targetLabel) {
-		this.op = op;
-		this.targetLabel = targetLabel;
-	}
-
-	static OpCodeJump decode(int op, InputStream in, int curPc)
-			throws IOException {
-		return op == GOTO_W || op == JSR_W ? new OpCodeJump(op,
-				new CodeAbsLabel(in, true, curPc)) : (op >= IFEQ && op <= JSR)
-				|| op == IFNULL || op == IFNONNULL ? new OpCodeJump(op,
-				new CodeAbsLabel(in, false, curPc)) : null;
+	private OpCodeJump() {
 	}
 
-	static OpCodeJump makeIfnonnull(int targetIndex) {
-		CodeAbsLabel targetLabel = new CodeAbsLabel();
-		targetLabel.setNewIndex(targetIndex);
-		return new OpCodeJump(IFNONNULL, targetLabel);
+	static void decodeTo(OpCodeArray opCodes, int index, int op,
+			ClassInputBuffer in, int curPc, int[] indices) throws IOException {
+		int targetPc = (op == GOTO_W || op == JSR_W ? readInt(in)
+				: readShort(in)) + curPc;
+		CodeAbsLabel.checkRawTargetPc(targetPc, indices);
+		opCodes.setJump(index, op, indices[targetPc]);
 	}
 
-	static OpCodeJump makeJsrGoto(int targetIndex, boolean isJsr) {
-		CodeAbsLabel targetLabel = new CodeAbsLabel();
-		targetLabel.setNewIndex(targetIndex);
-		return new OpCodeJump(isJsr ? JSR : GOTO, targetLabel);
+	static int rawLength(int op) {
+		return op == GOTO_W || op == JSR_W ? 5 : (op >= IFEQ && op <= JSR)
+				|| op == IFNULL || op == IFNONNULL ? 3 : 0;
 	}
 
-	void mapLabelsPc(int[] indices) throws BadClassFileException {
-		targetLabel.mapLabelsPc(indices);
+	static void checkRawTargets(int op, byte[] bytes, int pos, int[] indices)
+			throws IOException {
+		if (op == GOTO_W || op == JSR_W) {
+			CodeAbsLabel.checkRawTargetPc(getIntAt(bytes, pos + 1) + pos,
+					indices);
+		} else if (rawLength(op) != 0) {
+			CodeAbsLabel.checkRawTargetPc(
+					(short) getUnsignedShortAt(bytes, pos + 1) + pos, indices);
+		}
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
-		targetLabel.incLabelIndices(startIndex, incValue);
+	static int makeIfnonnull() {
+		return IFNONNULL;
 	}
 
-	void rebuildLabelsPc(int[] offsets) {
-		targetLabel.rebuildLabelsPc(offsets);
+	static int makeJsrGoto(boolean isJsr) {
+		return isJsr ? JSR : GOTO;
 	}
 
-	int getLength(int curPc) {
+	static int getLength(int op) {
 		return op == GOTO_W || op == JSR_W ? 5 : 3;
 	}
 
-	void writeRelTo(OutputStream out, int curPc) throws IOException {
+	static void writeRelTo(ClassOutputBuffer out, int op, int targetPc,
+			int curPc) throws IOException {
 		out.write(op);
-		targetLabel.writeRelTo(out, op == GOTO_W || op == JSR_W, curPc);
+		CodeAbsLabel.writeRelPcTo(out, targetPc, op == GOTO_W || op == JSR_W,
+				curPc);
 	}
 
-	boolean isEqualTo(OpByteCode other, int startIndex, int deltaIndex,
-			int endIndex2, int[] indexRef, int[] deltaVarRef, int argSlots,
-			Hashtable diffVarsSet) {
-		if (!(other instanceof OpCodeJump))
-			return false;
-		OpCodeJump opCodeJump = (OpCodeJump) other;
-		return op == opCodeJump.op
-				&& targetLabel.isEqualTo(opCodeJump.targetLabel, startIndex,
-						deltaIndex, endIndex2, indexRef);
-	}
-
-	boolean isJsrGoto(boolean isJsr) {
+	static boolean isJsrGoto(int op, boolean isJsr) {
 		return isJsr ? op == JSR || op == JSR_W : op == GOTO || op == GOTO_W;
 	}
 
-	CodeAbsLabel getTargetLabel() {
-		return targetLabel;
-	}
-
-	boolean isTargetInRange(int startIndex, int endIndex) {
-		return targetLabel.isInRange(startIndex, endIndex);
-	}
-
-	boolean isUncondBranch() {
+	static boolean isUncondBranch(int op) {
 		return op == GOTO || op == GOTO_W;
 	}
 }
@@ -0,0 +1,168 @@
+/*
+ * @(#) net/sf/jadretro/OpCodeKindIndex.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+final class OpCodeKindIndex {
+
+	static final int CHECKCAST = 0;
+
+	static final int LDC = 1;
+
+	static final int INVOKESTATIC = 2;
+
+	static final int INVOKESPECIAL = 3;
+
+	static final int PUTGETSTATIC = 4;
+
+	static final int RET = 5;
+
+	static final int ALOAD = 6;
+
+	private static final int KINDS_COUNT = 7;
+
+	private/* final */int[][] kindBits;
+
+	private int size;
+
+	OpCodeKindIndex(int size) {
+		kindBits = new int[KINDS_COUNT][(size >> 5) + 1];
+		this.size = size;
+	}
+
+	void set(int index, int kind) {
+		int word = index >> 5;
+		int bit = 1 << index;
+		for (int k = 0; k < KINDS_COUNT; k++) {
+			kindBits[k][word] &= ~bit;
+		}
+		if (kind >= 0) {
+			kindBits[kind][word] |= bit;
+		}
+	}
+
+	int nextIndexOf(int kind, int fromIndex) {
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		if (fromIndex >= size)
+			return -1;
+		int[] bits = kindBits[kind];
+		int i = fromIndex >> 5;
+		int word = bits[i] & (-1 << fromIndex);
+		while (word == 0) {
+			if (++i >= bits.length)
+				return -1;
+			word = bits[i];
+		}
+		return (i << 5) + lowestBitPos(word);
+	}
+
+	void removeAt(int startIndex, int count) {
+		int first = startIndex >> 5;
+		int last = (size - 1) >> 5;
+		int lowMask = (1 << (startIndex & 0x1f)) - 1;
+		for (int k = 0; k < KINDS_COUNT; k++) {
+			int[] bits = kindBits[k];
+			bits[first] = (bits[first] & lowMask)
+					| (bitsAt(bits, (first << 5) + count) & ~lowMask);
+			for (int i = first + 1; i <= last; i++) {
+				bits[i] = bitsAt(bits, (i << 5) + count);
+			}
+		}
+		size -= count;
+	}
+
+	void insertAt(int startIndex, int count) {
+		int newSize = size + count;
+		int len = (newSize >> 5) + 1;
+		if (kindBits[0].length < len) {
+			len += len >> 1;
+			for (int k = 0; k < KINDS_COUNT; k++) {
+				int[] newBits = new int[len];
+				System.arraycopy(kindBits[k], 0, newBits, 0,
+						kindBits[k].length);
+				kindBits[k] = newBits;
+			}
+		}
+		int first = startIndex >> 5;
+		int lowMask = (1 << (startIndex & 0x1f)) - 1;
+		for (int k = 0; k < KINDS_COUNT; k++) {
+			int[] bits = kindBits[k];
+			for (int i = (newSize - 1) >> 5; i > first; i--) {
+				bits[i] = bitsAt(bits, (i << 5) - count);
+			}
+			bits[first] = (bits[first] & lowMask)
+					| (bitsAt(bits, (first << 5) - count) & ~lowMask);
+			for (int i = startIndex + count - 1; i >= startIndex; i--) {
+				bits[i >> 5] &= ~(1 << i);
+			}
+		}
+		size = newSize;
+	}
+
+	private static int bitsAt(int[] bits, int pos) {
+		int i = pos >> 5;
+		int shift = pos & 0x1f;
+		int value = i >= 0 && i < bits.length ? bits[i] >>> shift : 0;
+		if (shift != 0 && ++i >= 0 && i < bits.length) {
+			value |= bits[i] << (0x20 - shift);
+		}
+		return value;
+	}
+
+	private static int lowestBitPos(int word) {
+		int pos = 0;
+		if ((word & 0xffff) == 0) {
+			word >>>= 16;
+			pos = 16;
+		}
+		if ((word & 0xff) == 0) {
+			word >>>= 8;
+			pos += 8;
+		}
+		if ((word & 0xf) == 0) {
+			word >>>= 4;
+			pos += 4;
+		}
+		if ((word & 0x3) == 0) {
+			word >>>= 2;
+			pos += 2;
+		}
+		return (word & 0x1) == 0 ? pos + 1 : pos;
+	}
+}
@@ -37,10 +37,6 @@
 
 package net.sf.jadretro;
 
-import java.io.IOException;
-import java.io.OutputStream;
-import java.util.Hashtable;
-
 final class OpCodeSimple extends OpByteCode {
 
 	private static final int ACONST_NULL = 0x1;
@@ -65,66 +61,47 @@ final class OpCodeSimple extends OpByteCode {
 
 	private static final int RETURN = 0xb1;
 
-	private/* final */int op;
-
-	OpCodeSimple(int op) {
-		this.op = op;
-	}
-
-	static OpCodeSimple makeAreturn() {
-		return new OpCodeSimple(ARETURN);
-	}
-
-	static OpCodeSimple makeAthrow() {
-		return new OpCodeSimple(ATHROW);
-	}
-
-	static OpCodeSimple makeDup() {
-		return new OpCodeSimple(DUP);
+	private OpCodeSimple() {
 	}
 
-	static OpCodeSimple makeIconstZero() {
-		return new OpCodeSimple(ICONST_0);
+	static int makeAreturn() {
+		return ARETURN;
 	}
 
-	static OpCodeSimple makeMonitorexit() {
-		return new OpCodeSimple(MONITOREXIT);
+	static int makeAthrow() {
+		return ATHROW;
 	}
 
-	int getLength(int curPc) {
-		return 1;
+	static int makeDup() {
+		return DUP;
 	}
 
-	void writeTo(OutputStream out) throws IOException {
-		out.write(op);
+	static int makeIconstZero() {
+		return ICONST_0;
 	}
 
-	boolean isEqualTo(OpByteCode other, int startIndex, int deltaIndex,
-			int endIndex2, int[] indexRef, int[] deltaVarRef, int argSlots,
-			Hashtable diffVarsSet) {
-		if (!(other instanceof OpCodeSimple))
-			return false;
-		return ((OpCodeSimple) other).op == op;
+	static int makeMonitorexit() {
+		return MONITOREXIT;
 	}
 
-	boolean isAthrow() {
+	static boolean isAthrow(int op) {
 		return op == ATHROW;
 	}
 
-	boolean isMonitorexit() {
+	static boolean isMonitorexit(int op) {
 		return op == MONITOREXIT;
 	}
 
-	boolean isXConstZero() {
+	static boolean isXConstZero(int op) {
 		return op == ACONST_NULL || op == ICONST_0 || op == LCONST_0
 				|| op == FCONST_0 || op == DCONST_0;
 	}
 
-	boolean isXReturn() {
+	static boolean isXReturn(int op) {
 		return op >= IRETURN && op <= RETURN;
 	}
 
-	boolean isUncondBranch() {
+	static boolean isUncondBranch(int op) {
 		return op == ATHROW || (op >= IRETURN && op <= RETURN);
 	}
 }
@@ -37,11 +37,8 @@
 
 package net.sf.jadretro;
 
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Hashtable;
-import java.util.Vector;
 
 final class OpCodeSwitch extends OpByteCode {
 
@@ -55,10 +52,10 @@ final class OpCodeSwitch extends OpByteCode {
 
 	private/* final */int[] matchValues;
 
-	private/* final */Vector gotoLabels;
+	private/* final */ObjVector gotoLabels;
 
 	private OpCodeSwitch(CodeAbsLabel defaultLabel, int lowValue,
-			int[] matchValues, Vector gotoLabels) {
+			int[] matchValues, ObjVector gotoLabels) {
 		this.defaultLabel = defaultLabel;
 		this.lowValue = lowValue;
 		this.matchValues = matchValues;
@@ -69,10 +66,12 @@ final class OpCodeSwitch extends OpByteCode {
 		return ~curPc & 0x3;
 	}
 
-	static OpCodeSwitch decode(int op, InputStream in, int curPc)
+	static boolean isSwitchOp(int op) {
+		return op == LOOKUPSWITCH || op == TABLESWITCH;
+	}
+
+	static OpCodeSwitch decode(int op, ClassInputBuffer in, int curPc)
 			throws IOException {
-		if (op != LOOKUPSWITCH && op != TABLESWITCH)
-			return null;
 		for (int skip = padSize(curPc); skip > 0; skip--) {
 			if (in.read() != 0)
 				throw new BadClassFileException();
@@ -94,7 +93,7 @@ final class OpCodeSwitch extends OpByteCode {
 				throw new BadClassFileException();
 			matchValues = null;
 		}
-		Vector gotoLabels = new Vector(count);
+		ObjVector gotoLabels = new ObjVector(count);
 		for (int i = 0; i < count; i++) {
 			if (matchValues != null) {
 				int value = readInt(in);
@@ -107,14 +106,71 @@ final class OpCodeSwitch extends OpByteCode {
 		return new OpCodeSwitch(defaultLabel, lowValue, matchValues, gotoLabels);
 	}
 
+	static int rawLength(int op, byte[] bytes, int pos) throws IOException {
+		if (op != LOOKUPSWITCH && op != TABLESWITCH)
+			return 0;
+		int ofs = pos + 1;
+		for (int skip = padSize(pos); skip > 0; skip--) {
+			if (getUnsignedByteAt(bytes, ofs++) != 0)
+				throw new BadClassFileException();
+		}
+		int count;
+		if (op == LOOKUPSWITCH) {
+			count = getIntAt(bytes, ofs + 4);
+			if (count < 0)
+				throw new BadClassFileException();
+			if (count > bytes.length)
+				throw new EOFException();
+			for (int i = 1; i < count; i++) {
+				if (getIntAt(bytes, ofs + (i << 3)) >= getIntAt(bytes, ofs
+						+ (i << 3) + 8))
+					throw new BadClassFileException();
+			}
+			count <<= 1;
+		} else {
+			int lowValue = getIntAt(bytes, ofs + 4);
+			count = getIntAt(bytes, ofs + 8) - lowValue + 1;
+			if (count < 0)
+				throw new BadClassFileException();
+			if (count > bytes.length)
+				throw new EOFException();
+			count++;
+		}
+		return padSize(pos) + (count << 2) + 9;
+	}
+
+	static void checkRawTargets(int op, byte[] bytes, int pos, int[] indices)
+			throws IOException {
+		if (op == LOOKUPSWITCH || op == TABLESWITCH) {
+			int ofs = pos + 1 + padSize(pos);
+			CodeAbsLabel.checkRawTargetPc(getIntAt(bytes, ofs) + pos, indices);
+			int count;
+			if (op == LOOKUPSWITCH) {
+				count = getIntAt(bytes, ofs + 4);
+				ofs += 12;
+				for (int i = 0; i < count; i++) {
+					CodeAbsLabel.checkRawTargetPc(getIntAt(bytes, ofs + (i << 3))
+							+ pos, indices);
+				}
+			} else {
+				count = getIntAt(bytes, ofs + 8) - getIntAt(bytes, ofs + 4) + 1;
+				ofs += 12;
+				for (int i = 0; i < count; i++) {
+					CodeAbsLabel.checkRawTargetPc(getIntAt(bytes, ofs + (i << 2))
+							+ pos, indices);
+				}
+			}
+		}
+	}
+
 	void mapLabelsPc(int[] indices) throws BadClassFileException {
 		defaultLabel.mapLabelsPc(indices);
 		mapLabelsPcForArray(gotoLabels, indices);
 	}
 
-	void incLabelIndices(int startIndex, int incValue) {
-		defaultLabel.incLabelIndices(startIndex, incValue);
-		incLabelIndicesForArray(gotoLabels, startIndex, incValue);
+	void bindLabels(CodeEditLog editLog) {
+		defaultLabel.bindLabels(editLog);
+		bindLabelsForArray(gotoLabels, editLog);
 	}
 
 	void rebuildLabelsPc(int[] offsets) {
@@ -122,14 +178,18 @@ final class OpCodeSwitch extends OpByteCode {
 		rebuildLabelsPcForArray(gotoLabels, offsets);
 	}
 
+	int getOp() {
+		return matchValues != null ? LOOKUPSWITCH : TABLESWITCH;
+	}
+
 	int getLength(int curPc) {
 		return padSize(curPc)
 				+ ((matchValues != null ? matchValues.length << 1 : gotoLabels
 						.size() + 1) << 2) + 9;
 	}
 
-	void writeRelTo(OutputStream out, int curPc) throws IOException {
-		out.write(matchValues != null ? LOOKUPSWITCH : TABLESWITCH);
+	void writeRelTo(ClassOutputBuffer out, int curPc) throws IOException {
+		out.write(getOp());
 		for (int skip = padSize(curPc); skip > 0; skip--) {
 			out.write(0);
 		}
@@ -150,12 +210,8 @@ final class OpCodeSwitch extends OpByteCode {
 		}
 	}
 
-	boolean isEqualTo(OpByteCode other, int startIndex, int deltaIndex,
-			int endIndex2, int[] indexRef, int[] deltaVarRef, int argSlots,
-			Hashtable diffVarsSet) {
-		if (!(other instanceof OpCodeSwitch))
-			return false;
-		OpCodeSwitch opCodeSwitch = (OpCodeSwitch) other;
+	boolean isEqualTo(OpCodeSwitch opCodeSwitch, int startIndex,
+			int deltaIndex, int endIndex2, int[] indexRef) {
 		int count = gotoLabels.size();
 		if (opCodeSwitch.gotoLabels.size() != count
 				|| lowValue != opCodeSwitch.lowValue
@@ -192,7 +248,12 @@ final class OpCodeSwitch extends OpByteCode {
 		return false;
 	}
 
-	boolean isUncondBranch() {
-		return true;
+	void addBranchesTo(BranchTargetIndex branchIndex, int sourceIndex) {
+		branchIndex.addBranch(defaultLabel.getIndex(), sourceIndex);
+		int count = gotoLabels.size();
+		for (int i = 0; i < count; i++) {
+			branchIndex.addBranch(((CodeAbsLabel) gotoLabels.elementAt(i))
+					.getIndex(), sourceIndex);
+		}
 	}
 }
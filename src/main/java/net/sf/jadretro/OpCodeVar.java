@@ -38,9 +38,6 @@
 package net.sf.jadretro;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.util.Hashtable;
 
 final class OpCodeVar extends OpByteCode {
 
@@ -66,71 +63,95 @@ final class OpCodeVar extends OpByteCode {
 
 	private static final int WIDE = 0xc4;
 
-	private/* final */int op;
-
-	private/* final */int type;
-
-	private/* final */int index;
-
-	private/* final */int incValue;
-
-	private OpCodeVar(int op, int type, int index, int incValue) {
-		this.op = op;
-		this.type = type;
-		this.index = index;
-		this.incValue = incValue;
+	private OpCodeVar() {
 	}
 
-	private OpCodeVar(int type, int index) {
-		op = index > 0xff ? WIDE : (index & ~3) != 0 ? type : type >= ILOAD
-				&& type <= ALOAD ? ((type - ILOAD) << 2) + index + ILOAD_0
-				: type >= ISTORE && type <= ASTORE ? ((type - ISTORE) << 2)
-						+ index + ISTORE_0 : type;
-		this.type = type;
-		this.index = index;
-		incValue = 0;
+	static boolean isVarOp(int op) {
+		return (op >= ILOAD_0 && op <= ALOAD_3)
+				|| (op >= ISTORE_0 && op <= ASTORE_3)
+				|| (op >= ILOAD && op <= ALOAD)
+				|| (op >= ISTORE && op <= ASTORE) || op == IINC || op == RET
+				|| op == WIDE;
 	}
 
-	static OpCodeVar decode(int op, InputStream in) throws IOException {
-		if (op >= ILOAD_0 && op <= ALOAD_3)
-			return new OpCodeVar(op, ILOAD + ((op - ILOAD_0) >> 2),
+	static void decodeTo(OpCodeArray opCodes, int index, int op,
+			ClassInputBuffer in) throws IOException {
+		if (op >= ILOAD_0 && op <= ALOAD_3) {
+			opCodes.set(index, makeOp(op, ILOAD + ((op - ILOAD_0) >> 2)),
 					(op - ILOAD_0) & 0x3, 0);
-		if (op >= ISTORE_0 && op <= ASTORE_3)
-			return new OpCodeVar(op, ISTORE + ((op - ISTORE_0) >> 2),
+		} else if (op >= ISTORE_0 && op <= ASTORE_3) {
+			opCodes.set(index, makeOp(op, ISTORE + ((op - ISTORE_0) >> 2)),
 					(op - ISTORE_0) & 0x3, 0);
-		int type = op;
-		if (op == WIDE) {
-			type = readUnsignedByte(in);
-		}
-		if ((type >= ILOAD && type <= ALOAD)
-				|| (type >= ISTORE && type <= ASTORE) || type == IINC
-				|| type == RET) {
-			int index = op == WIDE ? readUnsignedShort(in)
+		} else {
+			int type = op;
+			if (op == WIDE) {
+				type = readUnsignedByte(in);
+			}
+			if ((type < ILOAD || type > ALOAD)
+					&& (type < ISTORE || type > ASTORE) && type != IINC
+					&& type != RET)
+				throw new BadClassFileException();
+			int varInd = op == WIDE ? readUnsignedShort(in)
 					: readUnsignedByte(in);
-			return new OpCodeVar(op, type, index,
+			opCodes.set(index, makeOp(op, type), varInd,
 					type == IINC ? (op == WIDE ? readShort(in) : readByte(in))
 							: 0);
 		}
+	}
+
+	static int rawLength(int op, byte[] bytes, int pos) throws IOException {
+		if ((op >= ILOAD_0 && op <= ALOAD_3)
+				|| (op >= ISTORE_0 && op <= ASTORE_3))
+			return 1;
+		int type = op == WIDE ? getUnsignedByteAt(bytes, pos + 1) : op;
+		if ((type >= ILOAD && type <= ALOAD)
+				|| (type >= ISTORE && type <= ASTORE) || type == IINC
+				|| type == RET)
+			return op == WIDE ? (type == IINC ? 6 : 4) : type == IINC ? 3 : 2;
 		if (op == WIDE)
 			throw new BadClassFileException();
-		return null;
+		return 0;
+	}
+
+	static int rawKind(int op, byte[] bytes, int pos) {
+		int type = op >= ILOAD_0 && op <= ALOAD_3 ? ILOAD
+				+ ((op - ILOAD_0) >> 2) : op == WIDE ? bytes[pos + 1] & 0xff
+				: op;
+		return kindOfType(type);
+	}
+
+	private static int makeOp(int op, int type) {
+		return (type << 8) | op;
+	}
+
+	private static int makeVarOp(int type, int index) {
+		int op = index > 0xff ? WIDE : (index & ~3) != 0 ? type : type >= ILOAD
+				&& type <= ALOAD ? ((type - ILOAD) << 2) + index + ILOAD_0
+				: type >= ISTORE && type <= ASTORE ? ((type - ISTORE) << 2)
+						+ index + ISTORE_0 : type;
+		return makeOp(op, type);
 	}
 
-	static OpCodeVar makeAstoreAload(int varInd, boolean isStore) {
-		return new OpCodeVar(isStore ? ASTORE : ALOAD, varInd);
+	static int makeAstoreAload(int varInd, boolean isStore) {
+		return makeVarOp(isStore ? ASTORE : ALOAD, varInd);
 	}
 
-	static OpCodeVar makeRet(int varInd) {
-		return new OpCodeVar(RET, varInd);
+	static int makeRet(int varInd) {
+		return makeVarOp(RET, varInd);
 	}
 
-	int getLength(int curPc) {
+	static int getLength(int op) {
+		int type = op >> 8;
+		op &= 0xff;
 		return op == WIDE ? (type == IINC ? 6 : 4) : type == IINC ? 3
 				: (op < ILOAD_0 || op > ALOAD_3)
 						&& (op < ISTORE_0 || op > ASTORE_3) ? 2 : 1;
 	}
 
-	void writeTo(OutputStream out) throws IOException {
+	static void writeTo(ClassOutputBuffer out, int op, int index,
+			int incValue) throws IOException {
+		int type = op >> 8;
+		op &= 0xff;
 		out.write(op);
 		if (op == WIDE) {
 			out.write(type);
@@ -147,16 +168,14 @@ final class OpCodeVar extends OpByteCode {
 		}
 	}
 
-	boolean isEqualTo(OpByteCode other, int startIndex, int deltaIndex,
-			int endIndex2, int[] indexRef, int[] deltaVarRef, int argSlots,
-			Hashtable diffVarsSet) {
-		if (!(other instanceof OpCodeVar))
+	static boolean isEqualTo(OpCodeArray opCodes, int index, int otherIndex,
+			int[] deltaVarRef, int argSlots, ObjHashtable diffVarsSet) {
+		int type = opCodes.getOp(index) >> 8;
+		if (type != opCodes.getOp(otherIndex) >> 8
+				|| opCodes.getExtra(index) != opCodes.getExtra(otherIndex))
 			return false;
-		OpCodeVar opCodeVar = (OpCodeVar) other;
-		if (type != opCodeVar.type || incValue != opCodeVar.incValue)
-			return false;
-		int varInd = getVarIndex();
-		int diff = opCodeVar.getVarIndex() - varInd;
+		int varInd = opCodes.getArg(index);
+		int diff = opCodes.getArg(otherIndex) - varInd;
 		if (diff != 0) {
 			if (deltaVarRef[0] != diff) {
 				if (deltaVarRef[0] != 0)
@@ -173,19 +192,25 @@ final class OpCodeVar extends OpByteCode {
 		return true;
 	}
 
-	boolean isAstoreAload(boolean isStore) {
-		return isStore ? type == ASTORE : type == ALOAD;
+	static boolean isAstoreAload(int op, boolean isStore) {
+		return op >> 8 == (isStore ? ASTORE : ALOAD);
 	}
 
-	boolean isRetXLoad(boolean isRet) {
+	static boolean isRetXLoad(int op, boolean isRet) {
+		int type = op >> 8;
 		return isRet ? type == RET : type >= ILOAD && type <= ALOAD;
 	}
 
-	int getVarIndex() {
-		return index;
+	static int getKind(int op) {
+		return kindOfType(op >> 8);
+	}
+
+	private static int kindOfType(int type) {
+		return type == RET ? OpCodeKindIndex.RET
+				: type == ALOAD ? OpCodeKindIndex.ALOAD : -1;
 	}
 
-	boolean isUncondBranch() {
-		return type == RET;
+	static boolean isUncondBranch(int op) {
+		return op >> 8 == RET;
 	}
 }
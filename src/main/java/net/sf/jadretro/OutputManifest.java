@@ -0,0 +1,187 @@
+/*
+ * @(#) net/sf/jadretro/OutputManifest.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Hashtable;
+import java.util.Vector;
+import java.util.zip.CRC32;
+
+final class OutputManifest {
+
+	static final String FILE_NAME = ".jadretro-manifest";
+
+	private static final int MAGIC_VALUE = 0x4a524d46;
+
+	private static final long RACY_TIME_SLACK = 2000L;
+
+	private/* final */File file;
+
+	private/* final */String key;
+
+	private/* final */long startTime;
+
+	private long prevStartTime;
+
+	private/* final */Hashtable prevEntries = new Hashtable();
+
+	private/* final */Vector entries = new Vector();
+
+	private/* final */Hashtable entryPathSet = new Hashtable();
+
+	private OutputManifest(File outdir, String key) {
+		file = new File(outdir, FILE_NAME);
+		this.key = key;
+		startTime = System.currentTimeMillis();
+	}
+
+	static OutputManifest load(File outdir, String key) {
+		OutputManifest manifest = new OutputManifest(outdir, key);
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(
+					new FileInputStream(manifest.file)));
+			try {
+				manifest.readFrom(in);
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			manifest.prevEntries.clear();
+		}
+		return manifest;
+	}
+
+	private void readFrom(DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC_VALUE || !in.readUTF().equals(key))
+			return;
+		prevStartTime = in.readLong();
+		for (int count = in.readInt(); count > 0; count--) {
+			ManifestEntry entry = new ManifestEntry(in);
+			prevEntries.put(entry.path(), entry);
+		}
+	}
+
+	File file() {
+		return file;
+	}
+
+	boolean isManifestFile(File infile) {
+		return infile.getAbsolutePath().equals(file.getAbsolutePath());
+	}
+
+	ManifestEntry lookup(ManifestEntry stamp) throws IOException {
+		ManifestEntry entry = (ManifestEntry) prevEntries.get(stamp.path());
+		if (entry == null || !entry.isSameSize(stamp))
+			return null;
+		if (!entry.isSameInput(stamp)
+				|| entry.isModifiedSince(prevStartTime - RACY_TIME_SLACK)) {
+			if (!stamp.hasCrc()) {
+				stamp.setCrc(crcOf(new File(stamp.path())));
+			}
+			if (stamp.crc() != entry.crc())
+				return null;
+			entry.touch(stamp);
+		}
+		return entry.isOutputIntact() ? entry : null;
+	}
+
+	void put(ManifestEntry entry) {
+		if (entryPathSet.put(entry.path(), "") == null) {
+			entries.addElement(entry);
+		}
+	}
+
+	void store() throws IOException {
+		String parent = file.getParent();
+		if (parent != null) {
+			(new File(parent)).mkdirs();
+		}
+		File tmpfile = new File(file.getPath() + ".tmp");
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(tmpfile)));
+		try {
+			out.writeInt(MAGIC_VALUE);
+			out.writeUTF(key);
+			out.writeLong(startTime);
+			int count = entries.size();
+			out.writeInt(count);
+			for (int i = 0; i < count; i++) {
+				((ManifestEntry) entries.elementAt(i)).writeTo(out);
+			}
+			out.close();
+		} catch (IOException e) {
+			out.close();
+			tmpfile.delete();
+			throw e;
+		}
+		file.delete();
+		if (!tmpfile.renameTo(file)) {
+			tmpfile.delete();
+			throw new IOException();
+		}
+	}
+
+	static int crcOf(byte[] bytes, int len) {
+		CRC32 crc32 = new CRC32();
+		crc32.update(bytes, 0, len);
+		return (int) crc32.getValue();
+	}
+
+	static int crcOf(File file) throws IOException {
+		CRC32 crc32 = new CRC32();
+		InputStream in = new FileInputStream(file);
+		try {
+			byte[] buf = new byte[0x2000];
+			int res;
+			while ((res = in.read(buf)) >= 0) {
+				crc32.update(buf, 0, res);
+			}
+		} finally {
+			in.close();
+		}
+		return (int) crc32.getValue();
+	}
+}
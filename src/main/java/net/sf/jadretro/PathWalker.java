@@ -0,0 +1,118 @@
+/*
+ * @(#) net/sf/jadretro/PathWalker.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.File;
+import java.util.Hashtable;
+
+final class PathWalker {
+
+	private File[] dirs = new File[0x10];
+
+	private String[][] lists = new String[0x10][];
+
+	private int[] indices = new int[0x10];
+
+	private int depth;
+
+	private boolean isTopLevel;
+
+	private/* final */Hashtable visitedPathSet = new Hashtable();
+
+	PathWalker(String[] args, int start) {
+		lists[0] = args;
+		indices[0] = start;
+	}
+
+	String next() {
+		while (depth >= 0) {
+			String[] list = lists[depth];
+			int index = indices[depth];
+			if (index < list.length) {
+				indices[depth] = index + 1;
+				if (depth == 0) {
+					isTopLevel = true;
+					return list[index];
+				}
+				isTopLevel = false;
+				String name = list[index];
+				list[index] = null;
+				return (new File(dirs[depth], name)).getPath();
+			}
+			lists[depth] = null;
+			dirs[depth] = null;
+			depth--;
+		}
+		return null;
+	}
+
+	boolean isFirstVisit(File file, boolean isDirectory) {
+		String path = file.getPath();
+		if (isTopLevel) {
+			if (visitedPathSet.put(path, "") != null)
+				return false;
+			String parent = file.getParent();
+			return isDirectory || parent == null
+					|| visitedPathSet.get(parent) == null;
+		}
+		if (isDirectory)
+			return visitedPathSet.put(path, "") == null;
+		return visitedPathSet.get(path) == null;
+	}
+
+	boolean enter(File dir) {
+		String[] list = dir.list();
+		if (list == null)
+			return false;
+		if (++depth == lists.length) {
+			File[] newDirs = new File[depth << 1];
+			System.arraycopy(dirs, 0, newDirs, 0, depth);
+			dirs = newDirs;
+			String[][] newLists = new String[depth << 1][];
+			System.arraycopy(lists, 0, newLists, 0, depth);
+			lists = newLists;
+			int[] newIndices = new int[depth << 1];
+			System.arraycopy(indices, 0, newIndices, 0, depth);
+			indices = newIndices;
+		}
+		dirs[depth] = dir;
+		lists[depth] = list;
+		indices[depth] = 0;
+		return true;
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * @(#) net/sf/jadretro/TransformCache.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+final class TransformCache {
+
+	private static final int MAGIC_VALUE = 0x4a52434b;
+
+	private static final long MAX_SIZE = 128L << 20;
+
+	private static final long TMP_FILE_EXPIRY = 3600000L;
+
+	private static final char[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5',
+			'6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+
+	private/* final */File dir;
+
+	private/* final */byte[] optionsKey;
+
+	private long size = -1L;
+
+	TransformCache(File dir, TransformOptions options) {
+		this.dir = dir;
+		optionsKey = (Main.BUILD_ID + " "
+				+ (options.keepBridgeMethods() ? "-b " : "")
+				+ (options.noAdjLocClassNames() ? "-l " : "")
+				+ (options.setOldVer() ? "-c " : "")
+				+ (options.keepSemantics() ? "-s" : "")).getBytes();
+	}
+
+	String keyOf(byte[] bytes, int offset, int len) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+		digest.update(optionsKey);
+		digest.update(bytes, offset, len);
+		byte[] hash = digest.digest();
+		char[] chars = new char[hash.length << 1];
+		for (int i = 0; i < hash.length; i++) {
+			chars[i << 1] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+			chars[(i << 1) + 1] = HEX_DIGITS[hash[i] & 0xf];
+		}
+		return new String(chars);
+	}
+
+	TransformResult lookup(String key) {
+		File file = fileOf(key);
+		if (!file.isFile())
+			return null;
+		String className;
+		String newClassName;
+		byte[] classBytes = null;
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(
+					new FileInputStream(file)));
+			try {
+				if (in.readInt() != MAGIC_VALUE)
+					return null;
+				className = in.readUTF();
+				newClassName = in.readUTF();
+				int len = in.readInt();
+				if (len >= 0) {
+					classBytes = new byte[len];
+					in.readFully(classBytes);
+				}
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return null;
+		}
+		file.setLastModified(System.currentTimeMillis());
+		return new TransformResult(className,
+				newClassName.length() > 0 ? newClassName : null, classBytes,
+				null);
+	}
+
+	void store(String key, TransformResult result) {
+		if (result.diagnostic() != null)
+			return;
+		File file = fileOf(key);
+		try {
+			File subdir = new File(file.getParent());
+			subdir.mkdirs();
+			File tmpfile = File.createTempFile(key, ".tmp", subdir);
+			DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tmpfile)));
+			try {
+				out.writeInt(MAGIC_VALUE);
+				out.writeUTF(result.className());
+				String newClassName = result.newClassName();
+				out.writeUTF(newClassName != null ? newClassName : "");
+				byte[] classBytes = result.classBytes();
+				if (classBytes != null) {
+					out.writeInt(classBytes.length);
+					out.write(classBytes);
+				} else {
+					out.writeInt(-1);
+				}
+				out.close();
+			} catch (IOException e) {
+				out.close();
+				tmpfile.delete();
+				throw e;
+			}
+			if (tmpfile.renameTo(file)) {
+				addSize(file.length());
+			} else {
+				tmpfile.delete();
+			}
+		} catch (IOException e) {
+			// Ignore (the cache is optional).
+		}
+	}
+
+	private synchronized void addSize(long len) {
+		if (size < 0L) {
+			size = scan(false);
+		} else {
+			size += len;
+		}
+		if (size > MAX_SIZE) {
+			size = scan(true);
+		}
+	}
+
+	private long scan(boolean trim) {
+		File[] files = new File[0x100];
+		long[] times = new long[files.length];
+		long[] lens = new long[files.length];
+		int count = 0;
+		long total = 0L;
+		long expiryTime = System.currentTimeMillis() - TMP_FILE_EXPIRY;
+		String[] subdirNames = dir.list();
+		for (int i = 0; subdirNames != null && i < subdirNames.length; i++) {
+			if (subdirNames[i].length() != 2)
+				continue;
+			File subdir = new File(dir, subdirNames[i]);
+			String[] names = subdir.list();
+			for (int j = 0; names != null && j < names.length; j++) {
+				File file = new File(subdir, names[j]);
+				long time = file.lastModified();
+				if (names[j].endsWith(".tmp")) {
+					if (time < expiryTime) {
+						file.delete();
+					}
+					continue;
+				}
+				if (files.length == count) {
+					File[] newFiles = new File[count << 1];
+					System.arraycopy(files, 0, newFiles, 0, count);
+					files = newFiles;
+					long[] newTimes = new long[count << 1];
+					System.arraycopy(times, 0, newTimes, 0, count);
+					times = newTimes;
+					long[] newLens = new long[count << 1];
+					System.arraycopy(lens, 0, newLens, 0, count);
+					lens = newLens;
+				}
+				files[count] = file;
+				times[count] = time;
+				total += (lens[count] = file.length());
+				count++;
+			}
+		}
+		if (trim) {
+			sortByTime(files, times, lens, count);
+			long limit = MAX_SIZE - (MAX_SIZE >> 2);
+			for (int i = 0; i < count && total > limit; i++) {
+				if (files[i].delete()) {
+					total -= lens[i];
+				}
+			}
+		}
+		return total;
+	}
+
+	private static void sortByTime(File[] files, long[] times, long[] lens,
+			int count) {
+		int gap = 1;
+		while (gap < count / 3) {
+			gap = gap * 3 + 1;
+		}
+		for (; gap > 0; gap /= 3) {
+			for (int i = gap; i < count; i++) {
+				File file = files[i];
+				long time = times[i];
+				long len = lens[i];
+				int j = i;
+				while (j >= gap && times[j - gap] > time) {
+					files[j] = files[j - gap];
+					times[j] = times[j - gap];
+					lens[j] = lens[j - gap];
+					j -= gap;
+				}
+				files[j] = file;
+				times[j] = time;
+				lens[j] = len;
+			}
+		}
+	}
+
+	private File fileOf(String key) {
+		return new File(new File(dir, key.substring(0, 2)), key.substring(2));
+	}
+}
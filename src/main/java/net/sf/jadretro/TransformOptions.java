@@ -0,0 +1,91 @@
+/*
+ * @(#) net/sf/jadretro/TransformOptions.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+/**
+ * The options of a class transformation (same as the command-line ones).
+ */
+public final class TransformOptions {
+
+	private/* final */boolean keepBridgeMethods;
+
+	private/* final */boolean noAdjLocClassNames;
+
+	private/* final */boolean setOldVer;
+
+	private/* final */boolean keepSemantics;
+
+	/**
+	 * The parameters correspond to "-b", "-l" and "-c" options.
+	 */
+	public TransformOptions(boolean keepBridgeMethods,
+			boolean noAdjLocClassNames, boolean setOldVer) {
+		this(keepBridgeMethods, noAdjLocClassNames, setOldVer, false);
+	}
+
+	/**
+	 * If keepSemantics is set then the transformations which only help a
+	 * decompiler but change the behavior of the class (e.g., the assertions
+	 * and the class literals rewriting, the finally blocks restructuring)
+	 * are not performed (as needed when the class is to be run).
+	 */
+	public TransformOptions(boolean keepBridgeMethods,
+			boolean noAdjLocClassNames, boolean setOldVer,
+			boolean keepSemantics) {
+		this.keepBridgeMethods = keepBridgeMethods;
+		this.noAdjLocClassNames = noAdjLocClassNames;
+		this.setOldVer = setOldVer;
+		this.keepSemantics = keepSemantics;
+	}
+
+	public boolean keepBridgeMethods() {
+		return keepBridgeMethods;
+	}
+
+	public boolean noAdjLocClassNames() {
+		return noAdjLocClassNames;
+	}
+
+	public boolean setOldVer() {
+		return setOldVer;
+	}
+
+	public boolean keepSemantics() {
+		return keepSemantics;
+	}
+}
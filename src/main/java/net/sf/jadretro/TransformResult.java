@@ -0,0 +1,94 @@
+/*
+ * @(#) net/sf/jadretro/TransformResult.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+/**
+ * The outcome of a class transformation.
+ */
+public final class TransformResult {
+
+	private/* final */String className;
+
+	private/* final */String newClassName;
+
+	private/* final */byte[] classBytes;
+
+	private/* final */String diagnostic;
+
+	TransformResult(String className, String newClassName, byte[] classBytes,
+			String diagnostic) {
+		this.className = className;
+		this.newClassName = newClassName;
+		this.classBytes = classBytes;
+		this.diagnostic = diagnostic;
+	}
+
+	/**
+	 * Returns the original (internal) class name, or null if the class file
+	 * is invalid.
+	 */
+	public String className() {
+		return className;
+	}
+
+	/**
+	 * Returns the new (internal) class name, or null if not renamed.
+	 */
+	public String newClassName() {
+		return newClassName;
+	}
+
+	public boolean isChanged() {
+		return classBytes != null;
+	}
+
+	/**
+	 * Returns the transformed class file, or null if not changed.
+	 */
+	public byte[] classBytes() {
+		return classBytes;
+	}
+
+	/**
+	 * Returns the reason why the class is not transformed (e.g., the class
+	 * file is invalid), or null if none.
+	 */
+	public String diagnostic() {
+		return diagnostic;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * @(#) net/sf/jadretro/UtfInternCache.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.UTFDataFormatException;
+
+final class UtfInternCache {
+
+	private static final int WAYS = 4;
+
+	private static final int SETS = 0x800;
+
+	private static final int LOCKS = 0x40;
+
+	private static final int MAX_LEN = 0x100;
+
+	private static final ConstUtfContent[] entries = new ConstUtfContent[SETS
+			* WAYS];
+
+	private static final int[] hashes = new int[SETS * WAYS];
+
+	private static final Object[] locks = new Object[LOCKS];
+
+	static {
+		for (int i = 0; i < LOCKS; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	private UtfInternCache() {
+	}
+
+	static ConstUtfContent intern(byte[] bytes, int ofs, int len)
+			throws UTFDataFormatException {
+		if (len > MAX_LEN)
+			return ConstUtfContent.decode(bytes, ofs, len);
+		int hash = len;
+		for (int i = 0; i < len; i++) {
+			hash = hash * 31 + bytes[ofs + i];
+		}
+		int set = (hash ^ (hash >>> 16)) & (SETS - 1);
+		int base = set * WAYS;
+		Object lock = locks[set & (LOCKS - 1)];
+		ConstUtfContent content;
+		synchronized (lock) {
+			if ((content = lookup(base, hash, bytes, ofs, len)) != null)
+				return content;
+		}
+		ConstUtfContent newContent = ConstUtfContent.decode(bytes, ofs, len);
+		synchronized (lock) {
+			if ((content = lookup(base, hash, bytes, ofs, len)) != null)
+				return content;
+			moveToFront(base, base + WAYS - 1, newContent, hash);
+		}
+		return newContent;
+	}
+
+	private static ConstUtfContent lookup(int base, int hash, byte[] bytes,
+			int ofs, int len) {
+		for (int i = base; i < base + WAYS; i++) {
+			ConstUtfContent content = entries[i];
+			if (content == null)
+				break;
+			if (hashes[i] == hash && content.isEncodedAs(bytes, ofs, len)) {
+				moveToFront(base, i, content, hash);
+				return content;
+			}
+		}
+		return null;
+	}
+
+	private static void moveToFront(int base, int index,
+			ConstUtfContent content, int hash) {
+		while (index > base) {
+			entries[index] = entries[index - 1];
+			hashes[index] = hashes[index - 1];
+			index--;
+		}
+		entries[base] = content;
+		hashes[base] = hash;
+	}
+}
@@ -0,0 +1,338 @@
+/*
+ * @(#) net/sf/jadretro/ZipArchive.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+final class ZipArchive {
+
+	static final int STORED = 0;
+
+	static final int DEFLATED = 8;
+
+	static final int CENTRAL_HEADER_LEN = 46;
+
+	private static final int LOCAL_HEADER_LEN = 30;
+
+	private static final int END_HEADER_LEN = 22;
+
+	private static final int LOCAL_HEADER_SIG = 0x04034b50;
+
+	private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+
+	private static final int END_HEADER_SIG = 0x06054b50;
+
+	private static final int ENCRYPTED_FLAG = 0x1;
+
+	private static final int COPY_BUF_SIZE = 8192;
+
+	private/* final */RandomAccessFile raf;
+
+	private/* final */ZipArchiveEntry[] entries;
+
+	private long firstOffset;
+
+	private byte[] comment;
+
+	ZipArchive(File file) throws IOException {
+		raf = new RandomAccessFile(file, "r");
+		try {
+			entries = readCentralDir();
+		} catch (IOException e) {
+			raf.close();
+			throw e;
+		}
+	}
+
+	private ZipArchiveEntry[] readCentralDir() throws IOException {
+		long fileLen = raf.length();
+		int tailLen = (int) Math.min(fileLen, END_HEADER_LEN + 0xffff);
+		if (tailLen < END_HEADER_LEN)
+			throw new BadArchiveFileException();
+		byte[] tail = new byte[tailLen];
+		raf.seek(fileLen - tailLen);
+		raf.readFully(tail);
+		int pos = tailLen - END_HEADER_LEN;
+		while (getIntAt(tail, pos) != END_HEADER_SIG
+				|| getShortAt(tail, pos + 20) != tailLen - END_HEADER_LEN - pos) {
+			if (--pos < 0)
+				throw new BadArchiveFileException();
+		}
+		int count = getShortAt(tail, pos + 10);
+		long centralSize = getIntAt(tail, pos + 12) & 0xffffffffL;
+		long centralOffset = getIntAt(tail, pos + 16) & 0xffffffffL;
+		if (getIntAt(tail, pos + 4) != 0 || getShortAt(tail, pos + 8) != count
+				|| count == 0xffff || centralOffset == 0xffffffffL
+				|| centralOffset + centralSize > fileLen - tailLen + pos)
+			throw new BadArchiveFileException();
+		comment = new byte[tailLen - END_HEADER_LEN - pos];
+		System.arraycopy(tail, pos + END_HEADER_LEN, comment, 0,
+				comment.length);
+		byte[] central = new byte[(int) centralSize];
+		raf.seek(centralOffset);
+		raf.readFully(central);
+		ZipArchiveEntry[] entries = new ZipArchiveEntry[count];
+		long[] offsets = new long[count];
+		pos = 0;
+		for (int i = 0; i < count; i++) {
+			if (central.length - pos < CENTRAL_HEADER_LEN
+					|| getIntAt(central, pos) != CENTRAL_HEADER_SIG)
+				throw new BadArchiveFileException();
+			int nameLen = getShortAt(central, pos + 28);
+			int len = CENTRAL_HEADER_LEN + nameLen
+					+ getShortAt(central, pos + 30)
+					+ getShortAt(central, pos + 32);
+			long localOffset = getIntAt(central, pos + 42) & 0xffffffffL;
+			if (central.length - pos < len || localOffset >= centralOffset
+					|| getIntAt(central, pos + 20) == -1
+					|| getIntAt(central, pos + 24) == -1)
+				throw new BadArchiveFileException();
+			byte[] record = new byte[len];
+			System.arraycopy(central, pos, record, 0, len);
+			entries[i] = new ZipArchiveEntry(record, nameLen, localOffset);
+			offsets[i] = localOffset;
+			pos += len;
+		}
+		sortOffsets(offsets);
+		firstOffset = count > 0 ? offsets[0] : centralOffset;
+		for (int i = 0; i < count; i++) {
+			ZipArchiveEntry entry = entries[i];
+			int index = findNextOffset(offsets, entry.localOffset());
+			entry.setRawEnd(index < count ? offsets[index] : centralOffset);
+		}
+		return entries;
+	}
+
+	private static void sortOffsets(long[] offsets) {
+		for (int i = 1; i < offsets.length; i++) {
+			long value = offsets[i];
+			int j = i;
+			while (j > 0 && offsets[j - 1] > value) {
+				offsets[j] = offsets[j - 1];
+				j--;
+			}
+			offsets[j] = value;
+		}
+	}
+
+	private static int findNextOffset(long[] offsets, long offset) {
+		int low = 0;
+		int high = offsets.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (offsets[mid] <= offset) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	int getEntriesCount() {
+		return entries.length;
+	}
+
+	ZipArchiveEntry getEntryAt(int index) {
+		return entries[index];
+	}
+
+	boolean isSigned() {
+		for (int i = 0; i < entries.length; i++) {
+			if (entries[i].isSignatureFile())
+				return true;
+		}
+		return false;
+	}
+
+	boolean isTransformable(ZipArchiveEntry entry) {
+		int method = entry.method();
+		return entry.isClassFile()
+				&& (getShortAt(entry.record(), 8) & ENCRYPTED_FLAG) == 0
+				&& (method == STORED || method == DEFLATED);
+	}
+
+	byte[] readEntryData(ZipArchiveEntry entry) throws IOException {
+		byte[] header = new byte[LOCAL_HEADER_LEN];
+		raf.seek(entry.localOffset());
+		raf.readFully(header);
+		if (getIntAt(header, 0) != LOCAL_HEADER_SIG)
+			throw new BadArchiveFileException();
+		long dataOffset = entry.localOffset() + LOCAL_HEADER_LEN
+				+ getShortAt(header, 26) + getShortAt(header, 28);
+		int len = entry.compressedSize();
+		if (len < 0 || dataOffset + len > entry.rawEnd())
+			throw new BadArchiveFileException();
+		byte[] data = new byte[len + 1];
+		raf.seek(dataOffset);
+		raf.readFully(data, 0, len);
+		return data;
+	}
+
+	void writeTo(OutputStream out) throws IOException {
+		ByteArrayOutputStream central = new ByteArrayOutputStream();
+		long pos = copyRawTo(out, 0L, firstOffset);
+		for (int i = 0; i < entries.length; i++) {
+			ZipArchiveEntry entry = entries[i];
+			byte[] record = entry.record();
+			if ((pos & ~0xffffffffL) != 0)
+				throw new ClassOverflowException();
+			putIntAt(record, 42, (int) pos);
+			byte[] data = entry.newData();
+			if (data != null) {
+				byte[] header = new byte[LOCAL_HEADER_LEN];
+				putIntAt(header, 0, LOCAL_HEADER_SIG);
+				System.arraycopy(record, 6, header, 4, 26);
+				putShortAt(header, 28, 0);
+				out.write(header);
+				int nameLen = entry.recordNameLen();
+				out.write(record, CENTRAL_HEADER_LEN, nameLen);
+				out.write(data);
+				pos += LOCAL_HEADER_LEN + nameLen + data.length;
+			} else {
+				pos += copyRawTo(out, entry.localOffset(), entry.rawEnd());
+			}
+			central.write(record);
+		}
+		if ((pos & ~0xffffffffL) != 0)
+			throw new ClassOverflowException();
+		byte[] header = new byte[END_HEADER_LEN];
+		putIntAt(header, 0, END_HEADER_SIG);
+		putShortAt(header, 8, entries.length);
+		putShortAt(header, 10, entries.length);
+		putIntAt(header, 12, central.size());
+		putIntAt(header, 16, (int) pos);
+		putShortAt(header, 20, comment.length);
+		central.writeTo(out);
+		out.write(header);
+		out.write(comment);
+	}
+
+	private long copyRawTo(OutputStream out, long offset, long end)
+			throws IOException {
+		byte[] buf = new byte[(int) Math.min(end - offset, COPY_BUF_SIZE)];
+		raf.seek(offset);
+		for (long pos = offset; pos < end; pos += buf.length) {
+			int len = (int) Math.min(end - pos, buf.length);
+			raf.readFully(buf, 0, len);
+			out.write(buf, 0, len);
+		}
+		return end - offset;
+	}
+
+	void close() throws IOException {
+		raf.close();
+	}
+
+	static byte[] decode(byte[] data, int method, int size) throws IOException {
+		if (method != STORED)
+			return inflate(data, size);
+		if (data.length - 1 != size)
+			throw new BadArchiveFileException();
+		return data;
+	}
+
+	private static byte[] inflate(byte[] data, int size) throws IOException {
+		byte[] bytes = new byte[size];
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(data);
+			int len = 0;
+			while (len < size) {
+				int count = inflater.inflate(bytes, len, size - len);
+				if (count == 0
+						&& (inflater.finished() || inflater.needsInput() || inflater
+								.needsDictionary()))
+					throw new EOFException();
+				len += count;
+			}
+			if (!inflater.finished()
+					&& (inflater.inflate(new byte[1]) != 0 || !inflater
+							.finished()))
+				throw new BadArchiveFileException();
+		} catch (DataFormatException e) {
+			throw new BadArchiveFileException();
+		} finally {
+			inflater.end();
+		}
+		return bytes;
+	}
+
+	static byte[] deflate(byte[] bytes) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(
+				(bytes.length >> 1) + 0x40);
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			byte[] buf = new byte[COPY_BUF_SIZE];
+			while (!deflater.finished()) {
+				out.write(buf, 0, deflater.deflate(buf));
+			}
+		} finally {
+			deflater.end();
+		}
+		return out.toByteArray();
+	}
+
+	static int getShortAt(byte[] bytes, int pos) {
+		return (bytes[pos] & 0xff) | ((bytes[pos + 1] & 0xff) << 8);
+	}
+
+	static int getIntAt(byte[] bytes, int pos) {
+		return getShortAt(bytes, pos) | (getShortAt(bytes, pos + 2) << 16);
+	}
+
+	static void putShortAt(byte[] bytes, int pos, int value) {
+		bytes[pos] = (byte) value;
+		bytes[pos + 1] = (byte) (value >> 8);
+	}
+
+	static void putIntAt(byte[] bytes, int pos, int value) {
+		putShortAt(bytes, pos, value);
+		putShortAt(bytes, pos + 2, value >> 16);
+	}
+}
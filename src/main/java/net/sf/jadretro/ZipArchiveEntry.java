@@ -0,0 +1,194 @@
+/*
+ * @(#) net/sf/jadretro/ZipArchiveEntry.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.UnsupportedEncodingException;
+
+final class ZipArchiveEntry {
+
+	private static final int UTF8_NAME_FLAG = 0x800;
+
+	private static final int DATA_DESCRIPTOR_FLAG = 0x8;
+
+	private/* final */byte[] record;
+
+	private/* final */int nameLen;
+
+	private/* final */long localOffset;
+
+	private long rawEnd;
+
+	private String name;
+
+	private byte[] newRecord;
+
+	private byte[] newData;
+
+	ZipArchiveEntry(byte[] record, int nameLen, long localOffset) {
+		this.record = record;
+		this.nameLen = nameLen;
+		this.localOffset = localOffset;
+	}
+
+	String name() {
+		if (name == null) {
+			name = decodeName(record, ZipArchive.CENTRAL_HEADER_LEN, nameLen,
+					isUtf8Name());
+		}
+		return name;
+	}
+
+	boolean isClassFile() {
+		return name().endsWith(".class");
+	}
+
+	boolean isSignatureFile() {
+		String name = name();
+		return name.regionMatches(true, 0, "META-INF/", 0, 9)
+				&& name.indexOf('/', 9) < 0
+				&& (endsWithIgnoreCase(name, ".SF")
+						|| endsWithIgnoreCase(name, ".RSA")
+						|| endsWithIgnoreCase(name, ".DSA")
+						|| endsWithIgnoreCase(name, ".EC"));
+	}
+
+	private static boolean endsWithIgnoreCase(String name, String suffix) {
+		int len = suffix.length();
+		return name.regionMatches(true, name.length() - len, suffix, 0, len);
+	}
+
+	int method() {
+		return getShortAt(10);
+	}
+
+	int compressedSize() {
+		return getIntAt(20);
+	}
+
+	int size() {
+		return getIntAt(24);
+	}
+
+	long localOffset() {
+		return localOffset;
+	}
+
+	long rawEnd() {
+		return rawEnd;
+	}
+
+	void setRawEnd(long rawEnd) {
+		this.rawEnd = rawEnd;
+	}
+
+	private boolean isUtf8Name() {
+		return (getShortAt(8) & UTF8_NAME_FLAG) != 0;
+	}
+
+	void replaceWith(String newName, byte[] data, int size, int crc)
+			throws BadArchiveFileException {
+		byte[] nameBytes = newName != null ? encodeName(newName, isUtf8Name())
+				: null;
+		int newNameLen = nameBytes != null ? nameBytes.length : nameLen;
+		byte[] newRecord = new byte[record.length - nameLen + newNameLen];
+		System.arraycopy(record, 0, newRecord, 0,
+				ZipArchive.CENTRAL_HEADER_LEN);
+		if (nameBytes != null) {
+			System.arraycopy(nameBytes, 0, newRecord,
+					ZipArchive.CENTRAL_HEADER_LEN, newNameLen);
+		} else {
+			System.arraycopy(record, ZipArchive.CENTRAL_HEADER_LEN, newRecord,
+					ZipArchive.CENTRAL_HEADER_LEN, nameLen);
+		}
+		System.arraycopy(record, ZipArchive.CENTRAL_HEADER_LEN + nameLen,
+				newRecord, ZipArchive.CENTRAL_HEADER_LEN + newNameLen,
+				record.length - ZipArchive.CENTRAL_HEADER_LEN - nameLen);
+		ZipArchive.putShortAt(newRecord, 8, getShortAt(8)
+				& ~DATA_DESCRIPTOR_FLAG);
+		ZipArchive.putIntAt(newRecord, 16, crc);
+		ZipArchive.putIntAt(newRecord, 20, data.length);
+		ZipArchive.putIntAt(newRecord, 24, size);
+		ZipArchive.putShortAt(newRecord, 28, newNameLen);
+		this.newRecord = newRecord;
+		newData = data;
+	}
+
+	boolean isReplaced() {
+		return newRecord != null;
+	}
+
+	byte[] record() {
+		return newRecord != null ? newRecord : record;
+	}
+
+	int recordNameLen() {
+		return ZipArchive.getShortAt(record(), 28);
+	}
+
+	byte[] newData() {
+		return newData;
+	}
+
+	private int getShortAt(int pos) {
+		return ZipArchive.getShortAt(record, pos);
+	}
+
+	private int getIntAt(int pos) {
+		return ZipArchive.getIntAt(record, pos);
+	}
+
+	static String decodeName(byte[] bytes, int pos, int len, boolean isUtf8) {
+		try {
+			return new String(bytes, pos, len, isUtf8 ? "UTF8" : "ISO8859_1");
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException(e.toString());
+		}
+	}
+
+	private static byte[] encodeName(String name, boolean isUtf8)
+			throws BadArchiveFileException {
+		try {
+			byte[] bytes = name.getBytes(isUtf8 ? "UTF8" : "ISO8859_1");
+			if ((bytes.length & ~0xffff) != 0)
+				throw new BadArchiveFileException();
+			return bytes;
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException(e.toString());
+		}
+	}
+}
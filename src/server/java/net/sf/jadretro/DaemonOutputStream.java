@@ -0,0 +1,94 @@
+/*
+ * @(#) net/sf/jadretro/DaemonOutputStream.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+final class DaemonOutputStream extends OutputStream {
+
+	private/* final */DataOutputStream out;
+
+	private/* final */int tag;
+
+	private byte[] buf = new byte[0x200];
+
+	private int count;
+
+	DaemonOutputStream(DataOutputStream out, int tag) {
+		this.out = out;
+		this.tag = tag;
+	}
+
+	public void write(int b) throws IOException {
+		if (count == buf.length) {
+			flush();
+		}
+		buf[count++] = (byte) b;
+	}
+
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (len > buf.length - count) {
+			flush();
+			if (len > buf.length) {
+				writeRecord(b, off, len);
+				return;
+			}
+		}
+		System.arraycopy(b, off, buf, count, len);
+		count += len;
+	}
+
+	public void flush() throws IOException {
+		if (count > 0) {
+			int len = count;
+			count = 0;
+			writeRecord(buf, 0, len);
+		}
+	}
+
+	private void writeRecord(byte[] b, int off, int len) throws IOException {
+		synchronized (out) {
+			out.writeByte(tag);
+			out.writeInt(len);
+			out.write(b, off, len);
+			out.flush();
+		}
+	}
+}
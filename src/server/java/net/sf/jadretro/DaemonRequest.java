@@ -0,0 +1,100 @@
+/*
+ * @(#) net/sf/jadretro/DaemonRequest.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.Socket;
+
+final class DaemonRequest implements Runnable {
+
+	private/* final */Socket socket;
+
+	private/* final */DataOutputStream out;
+
+	private/* final */String[] args;
+
+	private/* final */File baseDir;
+
+	DaemonRequest(Socket socket, DataOutputStream out, String[] args,
+			File baseDir) {
+		this.socket = socket;
+		this.out = out;
+		this.args = args;
+		this.baseDir = baseDir;
+	}
+
+	public void run() {
+		PrintStream stdout = System.out;
+		PrintStream stderr = System.err;
+		try {
+			System.setOut(new PrintStream(new DaemonOutputStream(out,
+					SocketDaemon.TAG_OUT), true));
+			System.setErr(new PrintStream(new DaemonOutputStream(out,
+					SocketDaemon.TAG_ERR), true));
+			int res;
+			try {
+				res = Main.intMain(args, baseDir);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+				res = 1;
+			} catch (Error e) {
+				e.printStackTrace();
+				res = 1;
+			}
+			System.out.flush();
+			System.err.flush();
+			synchronized (out) {
+				out.writeByte(SocketDaemon.TAG_EXIT);
+				out.writeInt(res);
+				out.flush();
+			}
+		} catch (IOException e) {
+			// Ignore (the client has gone).
+		} finally {
+			System.setOut(stdout);
+			System.setErr(stderr);
+			try {
+				socket.close();
+			} catch (IOException e) {
+			}
+		}
+	}
+}
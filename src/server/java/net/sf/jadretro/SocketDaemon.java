@@ -0,0 +1,336 @@
+/*
+ * @(#) net/sf/jadretro/SocketDaemon.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.AclEntry;
+import java.nio.file.attribute.AclEntryPermission;
+import java.nio.file.attribute.AclEntryType;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The server mode implementation (requires Java 7 or later).
+ */
+final class SocketDaemon implements Daemon {
+
+	static final int TAG_EXIT = 0;
+
+	static final int TAG_OUT = 1;
+
+	static final int TAG_ERR = 2;
+
+	private static final String PORT_FILE_NAME = ".jadretro.port";
+
+	private static final int REQUEST_TIMEOUT = 2000;
+
+	private static final int HANDSHAKE_TIMEOUT = 5000;
+
+	private static final int MAX_PENDING_REQUESTS = 0x100;
+
+	SocketDaemon() {
+	}
+
+	public int serve() {
+		ServerSocket serverSocket;
+		File portFile = portFile();
+		long token = (new SecureRandom()).nextLong();
+		try {
+			serverSocket = new ServerSocket(0, 0x10, loopbackAddress());
+		} catch (IOException e) {
+			System.err.println("Error: cannot start server");
+			return 9;
+		}
+		try {
+			writePortFile(portFile.toPath(), serverSocket.getLocalPort(),
+					token);
+		} catch (IOException e) {
+			System.err.println("Error: cannot write private file: "
+					+ portFile.getPath());
+			return 7;
+		}
+		portFile.deleteOnExit();
+		System.out.println("Server started on port "
+				+ serverSocket.getLocalPort());
+		JobQueue requests = new JobQueue(MAX_PENDING_REQUESTS);
+		requests.startWorkers(1);
+		for (;;) {
+			Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (IOException e) {
+				break;
+			}
+			DaemonRequest request = null;
+			try {
+				request = readRequest(socket, token);
+			} catch (IOException e) {
+				// Ignore (the client has gone).
+			}
+			if (request != null) {
+				requests.put(request);
+			} else {
+				try {
+					socket.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+		}
+		return 0;
+	}
+
+	private static DaemonRequest readRequest(Socket socket, long token)
+			throws IOException {
+		socket.setSoTimeout(REQUEST_TIMEOUT);
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				socket.getInputStream()));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				socket.getOutputStream()));
+		boolean isAccepted = in.readLong() == token
+				&& in.readUTF().equals(Main.BUILD_ID);
+		String cwd = null;
+		String[] args = null;
+		if (isAccepted) {
+			cwd = in.readUTF();
+			int count = in.readInt();
+			if (count > 0 && count <= 0x10000) {
+				args = new String[count];
+				for (int i = 0; i < count; i++) {
+					args[i] = in.readUTF();
+				}
+			} else {
+				isAccepted = false;
+			}
+		}
+		// The request is acknowledged at once (even if queued), so the
+		// client could tell a busy server from a stale port file.
+		out.writeBoolean(isAccepted);
+		out.flush();
+		if (!isAccepted)
+			return null;
+		socket.setSoTimeout(0);
+		File baseDir = cwd.equals(System.getProperty("user.dir")) ? null
+				: new File(cwd);
+		return new DaemonRequest(socket, out, args, baseDir);
+	}
+
+	public int forward(String[] args) {
+		Path portFile = portFile().toPath();
+		if (!Files.isRegularFile(portFile) || !isPrivateFile(portFile))
+			return -1;
+		long[] values = readPortFile(portFile);
+		if (values == null)
+			return -1;
+		int port = (int) values[0];
+		long token = values[1];
+		Socket socket = new Socket();
+		boolean isAccepted = false;
+		try {
+			socket.connect(new InetSocketAddress(loopbackAddress(), port),
+					HANDSHAKE_TIMEOUT);
+			socket.setSoTimeout(HANDSHAKE_TIMEOUT);
+			DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(socket.getOutputStream()));
+			out.writeLong(token);
+			out.writeUTF(Main.BUILD_ID);
+			out.writeUTF(System.getProperty("user.dir"));
+			out.writeInt(args.length);
+			for (int i = 0; i < args.length; i++) {
+				out.writeUTF(args[i]);
+			}
+			out.flush();
+			DataInputStream in = new DataInputStream(new BufferedInputStream(
+					socket.getInputStream()));
+			if (!in.readBoolean())
+				return -1;
+			isAccepted = true;
+			socket.setSoTimeout(0);
+			byte[] buf = new byte[0x1000];
+			int tag;
+			while ((tag = in.readByte()) != TAG_EXIT) {
+				int len = in.readInt();
+				if (len < 0)
+					throw new IOException();
+				PrintStream stream = tag == TAG_OUT ? System.out : System.err;
+				while (len > 0) {
+					int cnt = in.read(buf, 0, len < buf.length ? len
+							: buf.length);
+					if (cnt <= 0)
+						throw new IOException();
+					stream.write(buf, 0, cnt);
+					len -= cnt;
+				}
+				stream.flush();
+			}
+			return in.readInt();
+		} catch (IOException e) {
+			if (!isAccepted) {
+				deleteStalePortFile(portFile, port, token);
+				return -1;
+			}
+			System.err.println("Error: connection to server lost");
+			return 9;
+		} finally {
+			try {
+				socket.close();
+			} catch (IOException e) {
+			}
+		}
+	}
+
+	private static File portFile() {
+		return new File(System.getProperty("user.home"), PORT_FILE_NAME);
+	}
+
+	private static InetAddress loopbackAddress() throws IOException {
+		return InetAddress.getByName("127.0.0.1");
+	}
+
+	private static void writePortFile(Path file, int port, long token)
+			throws IOException {
+		Path dir = file.toAbsolutePath().getParent();
+		Path tmpfile;
+		if (Files.getFileStore(dir).supportsFileAttributeView(
+				PosixFileAttributeView.class)) {
+			tmpfile = Files.createTempFile(dir, PORT_FILE_NAME, ".tmp",
+					PosixFilePermissions.asFileAttribute(PosixFilePermissions
+							.fromString("rw-------")));
+		} else {
+			tmpfile = Files.createTempFile(dir, PORT_FILE_NAME, ".tmp");
+			try {
+				AclFileAttributeView view = Files.getFileAttributeView(
+						tmpfile, AclFileAttributeView.class);
+				if (view == null)
+					throw new IOException();
+				view.setAcl(Collections.singletonList(AclEntry.newBuilder()
+						.setType(AclEntryType.ALLOW).setPrincipal(
+								Files.getOwner(tmpfile)).setPermissions(
+								AclEntryPermission.values()).build()));
+			} catch (IOException e) {
+				Files.delete(tmpfile);
+				throw e;
+			}
+		}
+		try {
+			DataOutputStream out = new DataOutputStream(Files
+					.newOutputStream(tmpfile));
+			try {
+				out.writeInt(port);
+				out.writeLong(token);
+			} finally {
+				out.close();
+			}
+			Files.move(tmpfile, file, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(tmpfile);
+			throw e;
+		}
+	}
+
+	private static boolean isPrivateFile(Path file) {
+		try {
+			UserPrincipal user = FileSystems.getDefault()
+					.getUserPrincipalLookupService().lookupPrincipalByName(
+							System.getProperty("user.name"));
+			if (!user.equals(Files.getOwner(file)))
+				return false;
+			if (Files.getFileStore(file).supportsFileAttributeView(
+					PosixFileAttributeView.class)) {
+				Set<PosixFilePermission> perms = Files
+						.getPosixFilePermissions(file);
+				if (!PosixFilePermissions.fromString("rw-------")
+						.containsAll(perms))
+					return false;
+			}
+			return true;
+		} catch (IOException e) {
+			return false;
+		} catch (UnsupportedOperationException e) {
+			return false;
+		}
+	}
+
+	private static long[] readPortFile(Path file) {
+		try {
+			DataInputStream in = new DataInputStream(Files
+					.newInputStream(file));
+			try {
+				return new long[] { in.readInt(), in.readLong() };
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static void deleteStalePortFile(Path file, int port, long token) {
+		long[] values = readPortFile(file);
+		if (values != null && values[0] == port && values[1] == token) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+			}
+		}
+	}
+}
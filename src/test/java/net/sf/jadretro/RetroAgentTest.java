@@ -0,0 +1,124 @@
+/*
+ * @(#) net/sf/jadretro/RetroAgentTest.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+
+import org.junit.Test;
+
+public class RetroAgentTest {
+
+	@Test
+	public void keepsBridgeMethods() throws Exception {
+		String className = BridgeDerived.class.getName();
+		ClassLoader parent = getClass().getClassLoader();
+		TestClassLoader loader = new TestClassLoader(parent, className,
+				new byte[0]);
+		byte[] bytes = RetroAgent.create("nocache").transform(loader,
+				className.replace('.', '/'), null, null,
+				readClassBytes(className));
+		assertNotNull(bytes);
+		loader = new TestClassLoader(parent, className, bytes);
+		Class<?> derivedClass = loader.loadClass(className);
+		BridgeBase derived = (BridgeBase) derivedClass.newInstance();
+		// Calls the bridge method of the transformed class.
+		assertSame(derivedClass, derived.copy().getClass());
+	}
+
+	@Test
+	public void keepsAssertionsDisabled() throws Exception {
+		String outerName = AssertOuter.class.getName();
+		String className = AssertOuter.Nested.class.getName();
+		TestClassLoader loader = new TestClassLoader(getClass()
+				.getClassLoader(), outerName, readClassBytes(outerName));
+		byte[] bytes = RetroAgent.create("nocache").transform(loader,
+				className.replace('.', '/'), null, null,
+				readClassBytes(className));
+		assertNotNull(bytes);
+		loader.addClass(className, bytes);
+		loader.setDefaultAssertionStatus(false);
+		// Throws AssertionError if the assertions status is not kept.
+		((Runnable) loader.loadClass(className).newInstance()).run();
+	}
+
+	@Test
+	public void skipsInterfaceStaticMethods() throws Exception {
+		RetroAgent agent = RetroAgent.create("nocache");
+		String ifaceName = "java8.StaticIface";
+		String className = "java8.IfaceCaller";
+		ClassLoader parent = getClass().getClassLoader();
+		TestClassLoader loader = new TestClassLoader(parent, ifaceName,
+				readClassBytes(ifaceName));
+		assertNull(agent.transform(loader, ifaceName.replace('.', '/'),
+				null, null, readClassBytes(ifaceName)));
+		byte[] bytes = readClassBytes(className);
+		byte[] newBytes = agent.transform(loader, className
+				.replace('.', '/'), null, null, bytes);
+		assertNull(newBytes);
+		loader.addClass(className, bytes);
+		// Throws VerifyError if the class version is lowered.
+		assertEquals(Integer.valueOf(42), ((Callable<?>) loader.loadClass(
+				className).newInstance()).call());
+	}
+
+	private static byte[] readClassBytes(String className)
+			throws IOException {
+		InputStream in = RetroAgentTest.class.getClassLoader()
+				.getResourceAsStream(className.replace('.', '/') + ".class");
+		assertNotNull(in);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buf = new byte[0x1000];
+			int res;
+			while ((res = in.read(buf)) >= 0) {
+				out.write(buf, 0, res);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
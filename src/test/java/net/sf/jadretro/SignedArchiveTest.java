@@ -0,0 +1,161 @@
+/*
+ * @(#) net/sf/jadretro/SignedArchiveTest.java --
+ * a part of JadRetro source.
+ **
+ * Copyright (C) 2007-2012 Ivan Maidanski <ivmai@mail.ru>
+ * All rights reserved.
+ */
+
+/*
+ * This is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2, or (at your option)
+ * any later version.
+ **
+ * This software is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License (GPL) for more details.
+ **
+ * Linking this library statically or dynamically with other modules is
+ * making a combined work based on this library. Thus, the terms and
+ * conditions of the GNU General Public License cover the whole
+ * combination.
+ **
+ * As a special exception, the copyright holders of this library give you
+ * permission to link this library with independent modules to produce an
+ * executable, regardless of the license terms of these independent
+ * modules, and to copy and distribute the resulting executable under
+ * terms of your choice, provided that you also meet, for each linked
+ * independent module, the terms and conditions of the license of that
+ * module. An independent module is a module which is not derived from
+ * or based on this library. If you modify this library, you may extend
+ * this exception to your version of the library, but you are not
+ * obligated to do so. If you do not wish to do so, delete this
+ * exception statement from your version.
+ */
+
+package net.sf.jadretro;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SignedArchiveTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void detectsSignatureFiles() throws IOException {
+		assertTrue(isSigned("META-INF/TEST.SF"));
+		assertTrue(isSigned("META-INF/TEST.RSA"));
+		assertTrue(isSigned("META-INF/TEST.DSA"));
+		assertTrue(isSigned("meta-inf/test.ec"));
+		assertFalse(isSigned("META-INF/MANIFEST.MF"));
+		assertFalse(isSigned("META-INF/sub/TEST.SF"));
+		assertFalse(isSigned("TEST.SF"));
+	}
+
+	@Test
+	public void skipsSignedArchive() throws IOException {
+		File file = createArchive("signed.jar", "META-INF/TEST.SF");
+		byte[] bytes = readFile(file);
+		ByteArrayOutputStream errBytes = new ByteArrayOutputStream();
+		PrintStream stderr = System.err;
+		System.setErr(new PrintStream(errBytes, true));
+		try {
+			assertEquals(0, Main.intMain(new String[] { "-c", "-q",
+					file.getPath() }, null));
+		} finally {
+			System.setErr(stderr);
+		}
+		assertArrayEquals(bytes, readFile(file));
+		// Only the warning is printed.
+		assertFalse(errBytes.toString().indexOf("Error:") >= 0);
+		assertTrue(errBytes.toString().indexOf("Signed archive ignored") >= 0);
+	}
+
+	@Test
+	public void transformsUnsignedArchive() throws IOException {
+		File file = createArchive("unsigned.jar", null);
+		byte[] bytes = readFile(file);
+		assertEquals(0, Main.intMain(new String[] { "-c", "-q",
+				file.getPath() }, null));
+		assertFalse(Arrays.equals(bytes, readFile(file)));
+	}
+
+	private boolean isSigned(String entryName) throws IOException {
+		ZipArchive archive = new ZipArchive(createArchive("test.jar",
+				entryName));
+		try {
+			return archive.isSigned();
+		} finally {
+			archive.close();
+		}
+	}
+
+	private File createArchive(String name, String extraEntryName)
+			throws IOException {
+		File file = new File(folder.getRoot(), name);
+		ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file));
+		try {
+			String className = BridgeBase.class.getName();
+			String entryName = className.replace('.', '/') + ".class";
+			out.putNextEntry(new ZipEntry(entryName));
+			InputStream in = getClass().getClassLoader().getResourceAsStream(
+					entryName);
+			assertNotNull(in);
+			try {
+				copy(in, out);
+			} finally {
+				in.close();
+			}
+			if (extraEntryName != null) {
+				out.putNextEntry(new ZipEntry(extraEntryName));
+				out.write("Signature-Version: 1.0\r\n".getBytes("US-ASCII"));
+			}
+		} finally {
+			out.close();
+		}
+		return file;
+	}
+
+	private static byte[] readFile(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			copy(in, out);
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	private static void copy(InputStream in, OutputStream out)
+			throws IOException {
+		byte[] buf = new byte[0x1000];
+		int res;
+		while ((res = in.read(buf)) >= 0) {
+			out.write(buf, 0, res);
+		}
+	}
+}